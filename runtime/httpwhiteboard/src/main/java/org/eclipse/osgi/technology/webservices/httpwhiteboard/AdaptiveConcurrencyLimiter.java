@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.osgi.technology.webservices.httpwhiteboard;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limiter that adjusts the allowed concurrency to the observed latency of the
+ * endpoint. It compares a short term average of the latency with the latency
+ * without load (the lowest latency seen recently), as long as both are close
+ * the limit grows, if the short term latency rises (requests start to queue
+ * somewhere behind the endpoint) the limit is reduced by the same gradient.
+ * Requests above the current limit are rejected immediately instead of
+ * queuing.
+ */
+final class AdaptiveConcurrencyLimiter implements ConcurrencyLimiter {
+
+    static final int DEFAULT_MAX_CONCURRENCY = 1000;
+
+    private static final int INITIAL_LIMIT = 20;
+    private static final int MIN_LIMIT = 1;
+    private static final double TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    private static final int SHORT_WINDOW = 10;
+    private static final int LONG_WINDOW = 600;
+
+    private final int maxConcurrency;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private volatile int limit;
+    // guarded by this
+    private double estimatedLimit;
+    private double shortLatency;
+    private double noLoadLatency;
+
+    AdaptiveConcurrencyLimiter(int maxConcurrency) {
+        this.maxConcurrency = Math.max(MIN_LIMIT, maxConcurrency);
+        this.estimatedLimit = Math.min(INITIAL_LIMIT, this.maxConcurrency);
+        this.limit = (int) estimatedLimit;
+    }
+
+    @Override
+    public boolean tryAcquire() {
+        if (inFlight.incrementAndGet() > limit) {
+            inFlight.decrementAndGet();
+            rejected.increment();
+            return false;
+        }
+        accepted.increment();
+        return true;
+    }
+
+    @Override
+    public void release(long latencyNanos) {
+        int concurrency = inFlight.getAndDecrement();
+        if (latencyNanos != NO_LATENCY) {
+            update(Math.max(1, latencyNanos), concurrency);
+        }
+    }
+
+    private synchronized void update(long latency, int concurrency) {
+        if (noLoadLatency == 0) {
+            shortLatency = latency;
+            noLoadLatency = latency;
+        } else {
+            shortLatency += (latency - shortLatency) / SHORT_WINDOW;
+            // slowly forget the minimum so a permanent drift of the backend latency
+            // is not mistaken for load
+            noLoadLatency = Math.min(latency, noLoadLatency + (shortLatency - noLoadLatency) / LONG_WINDOW);
+        }
+        if (concurrency < estimatedLimit / 2) {
+            // the endpoint is not using its limit, so the latency says nothing about
+            // whether it could handle more
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * noLoadLatency / shortLatency));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        newLimit = estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+        estimatedLimit = Math.max(MIN_LIMIT, Math.min(maxConcurrency, newLimit));
+        limit = (int) estimatedLimit;
+    }
+
+    @Override
+    public Map<String, Long> getStatistics() {
+        long latency;
+        synchronized (this) {
+            latency = (long) shortLatency;
+        }
+        return Map.of("maxConcurrency", (long) maxConcurrency, //
+                "limit", (long) limit, //
+                "concurrency", (long) inFlight.get(), //
+                "latency", latency / 1000, //
+                "accepted", accepted.sum(), //
+                "rejected", rejected.sum());
+    }
+}
@@ -0,0 +1,69 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.osgi.technology.webservices.httpwhiteboard;
+
+import java.util.Map;
+
+import org.eclipse.osgi.technology.webservices.propertytypes.EndpointConcurrency;
+
+/**
+ * Limits the number of requests an endpoint processes concurrently
+ */
+interface ConcurrencyLimiter {
+
+    /**
+     * @return <code>true</code> if the request may proceed and must call
+     *         {@link #release(long)} once it is done, <code>false</code> if it must
+     *         be rejected
+     */
+    boolean tryAcquire();
+
+    /**
+     * Latency passed to {@link #release(long)} for a request that never reached
+     * the endpoint, e.g. because it timed out while its body was read
+     */
+    long NO_LATENCY = -1;
+
+    /**
+     * Releases the slot of a request
+     *
+     * @param latencyNanos the time the endpoint took to process the request or
+     *                     {@link #NO_LATENCY} if the request carries no sample
+     */
+    void release(long latencyNanos);
+
+    /**
+     * @return the current statistics of the limiter
+     */
+    Map<String, Long> getStatistics();
+
+    /**
+     * @param attributes the properties of the endpoint
+     * @return the limiter configured by the properties or <code>null</code> if
+     *         the concurrency of the endpoint is not limited
+     */
+    static ConcurrencyLimiter create(Map<String, ?> attributes) {
+        long maxConcurrency = WhiteboardHttpContext.getLong(attributes.get(EndpointConcurrency.MAX_CONCURRENCY), 0);
+        if (Boolean.parseBoolean(String.valueOf(attributes.get(EndpointConcurrency.ADAPTIVE_CONCURRENCY)))) {
+            return new AdaptiveConcurrencyLimiter(
+                    maxConcurrency > 0 ? (int) Math.min(Integer.MAX_VALUE, maxConcurrency)
+                            : AdaptiveConcurrencyLimiter.DEFAULT_MAX_CONCURRENCY);
+        }
+        if (maxConcurrency <= 0) {
+            return null;
+        }
+        return new FixedConcurrencyLimiter((int) Math.min(Integer.MAX_VALUE, maxConcurrency),
+                (int) Math.min(Integer.MAX_VALUE, WhiteboardHttpContext.getLong(attributes.get(EndpointConcurrency.MAX_QUEUE), 0)),
+                WhiteboardHttpContext.getLong(attributes.get(EndpointConcurrency.QUEUE_TIMEOUT), 100));
+    }
+}
@@ -0,0 +1,121 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.osgi.technology.webservices.httpwhiteboard;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.osgi.service.http.whiteboard.HttpWhiteboardConstants;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Servlet that is registered once for a path prefix and routes each request to
+ * the {@link WhiteboardHttpContext} published for its path, so publishing an
+ * endpoint below the prefix does not require a new servlet registration.
+ */
+final class DispatcherServlet extends WhiteboardServlet {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient AtomicReference<PathTrie<WhiteboardHttpContext>> contexts = new AtomicReference<>(
+            PathTrie.empty());
+
+    DispatcherServlet(String prefix) {
+        super(Map.of(HttpWhiteboardConstants.HTTP_WHITEBOARD_SERVLET_NAME, "JAX-WS Dispatcher for path prefix " + prefix,
+                HttpWhiteboardConstants.HTTP_WHITEBOARD_SERVLET_PATTERN,
+                prefix.endsWith("/") ? prefix + "*" : prefix + "/*",
+                HttpWhiteboardConstants.HTTP_WHITEBOARD_SERVLET_ASYNC_SUPPORTED, Boolean.TRUE));
+    }
+
+    @Override
+    protected void service(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        String pathInfo = req.getPathInfo();
+        String path = pathInfo == null ? req.getServletPath() : req.getServletPath() + pathInfo;
+        WhiteboardHttpContext httpContext = contexts.get().get(path);
+        if (httpContext == null) {
+            resp.sendError(HttpURLConnection.HTTP_NOT_FOUND);
+            return;
+        }
+        while (httpContext != null) {
+            if (httpContext.service(new DispatchedRequest(req, httpContext.getPath()), resp, getServletContext())) {
+                return;
+            }
+            // unpublished meanwhile, the endpoint might have been republished
+            WhiteboardHttpContext current = contexts.get().get(path);
+            httpContext = current == httpContext ? null : current;
+        }
+        resp.sendError(HttpURLConnection.HTTP_UNAVAILABLE);
+    }
+
+    @Override
+    List<WhiteboardHttpContext> getContexts() {
+        return contexts.get().values();
+    }
+
+    @Override
+    WhiteboardHttpContext getContext(String path) {
+        return contexts.get().get(path);
+    }
+
+    void attach(WhiteboardHttpContext httpContext) {
+        contexts.updateAndGet(trie -> trie.with(httpContext.getPath(), httpContext));
+    }
+
+    /**
+     * Detaches the given context if it is the one currently published for its
+     * path
+     *
+     * @param httpContext the context to detach
+     * @return <code>true</code> if no context is left and the servlet is now
+     *         unused
+     */
+    boolean detach(WhiteboardHttpContext httpContext) {
+        return contexts.updateAndGet(trie -> trie.without(httpContext.getPath(), httpContext)).isEmpty();
+    }
+
+    /**
+     * Presents the request as if it was received by a servlet registered for
+     * exactly the path of the endpoint
+     */
+    private static final class DispatchedRequest extends HttpServletRequestWrapper {
+
+        private final String servletPath;
+
+        DispatchedRequest(HttpServletRequest request, String servletPath) {
+            super(request);
+            this.servletPath = servletPath;
+        }
+
+        @Override
+        public String getServletPath() {
+            return servletPath;
+        }
+
+        @Override
+        public String getPathInfo() {
+            return null;
+        }
+
+        @Override
+        public String getPathTranslated() {
+            return null;
+        }
+    }
+}
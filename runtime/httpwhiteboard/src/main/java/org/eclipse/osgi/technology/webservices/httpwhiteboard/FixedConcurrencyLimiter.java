@@ -0,0 +1,83 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.osgi.technology.webservices.httpwhiteboard;
+
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limits the number of requests an endpoint processes concurrently to a fixed
+ * value, requests above the limit may wait a short time in a bounded queue, all
+ * others are rejected immediately.
+ */
+final class FixedConcurrencyLimiter implements ConcurrencyLimiter {
+
+    private final int maxConcurrency;
+    private final int maxQueue;
+    private final long queueTimeout;
+    private final Semaphore permits;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    FixedConcurrencyLimiter(int maxConcurrency, int maxQueue, long queueTimeout) {
+        this.maxConcurrency = maxConcurrency;
+        this.maxQueue = Math.max(0, maxQueue);
+        this.queueTimeout = Math.max(0, queueTimeout);
+        this.permits = new Semaphore(maxConcurrency);
+    }
+
+    /**
+     * Tries to acquire a slot, if none is free and the queue is not full the
+     * caller waits for the configured queue timeout
+     */
+    @Override
+    public boolean tryAcquire() {
+        if (permits.tryAcquire()) {
+            accepted.increment();
+            return true;
+        }
+        if (maxQueue > 0 && queueTimeout > 0) {
+            try {
+                if (queued.incrementAndGet() <= maxQueue
+                        && permits.tryAcquire(queueTimeout, TimeUnit.MILLISECONDS)) {
+                    accepted.increment();
+                    return true;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                queued.decrementAndGet();
+            }
+        }
+        rejected.increment();
+        return false;
+    }
+
+    @Override
+    public void release(long latencyNanos) {
+        permits.release();
+    }
+
+    @Override
+    public Map<String, Long> getStatistics() {
+        return Map.of("maxConcurrency", (long) maxConcurrency, //
+                "concurrency", (long) (maxConcurrency - permits.availablePermits()), //
+                "queued", (long) queued.get(), //
+                "accepted", accepted.sum(), //
+                "rejected", rejected.sum());
+    }
+}
@@ -12,19 +12,28 @@
  *******************************************************************************/
 package org.eclipse.osgi.technology.webservices.httpwhiteboard;
 
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Objects;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
 
 import org.eclipse.osgi.technology.webservices.spi.EndpointPublisher;
 import org.eclipse.osgi.technology.webservices.spi.PublishedEndpoint;
 import org.osgi.framework.BundleContext;
+import org.osgi.framework.Constants;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Reference;
 import org.osgi.service.component.annotations.ReferenceCardinality;
 import org.osgi.service.component.annotations.ReferencePolicy;
 import org.osgi.service.http.runtime.HttpServiceRuntime;
+import org.osgi.service.http.runtime.HttpServiceRuntimeConstants;
 import org.osgi.service.http.whiteboard.annotations.RequireHttpWhiteboard;
 import org.osgi.service.log.Logger;
 import org.osgi.service.log.LoggerFactory;
@@ -42,51 +51,222 @@ import jakarta.xml.ws.Endpoint;
 @Component(immediate = true, name = "org.eclipse.osgi.technology.webservices.httpwhiteboard", service = EndpointPublisher.class)
 public class HttpWhiteboardPublisher implements EndpointPublisher {
 
+    private static final String HTTP_WHITEBOARD_PROPERTY_PREFIX = "osgi.http.whiteboard.";
+
     private BundleContext bundleContext;
     private Logger logger;
-    private Map<Endpoint, WhiteboardHttpContext> registrationMap = new ConcurrentHashMap<>();
+    private Map<String, JaxWsServlet> servletMap = new HashMap<>();
+    private Map<String, DispatcherServlet> dispatcherMap = new HashMap<>();
+    private final String[] dispatcherPrefixes;
     private AtomicReference<HttpServiceRuntime> httpRuntime = new AtomicReference<>();
+    private volatile Object httpRuntimeChangeCount;
+    private volatile String httpEndpoint;
 
     /**
      * Constructor
      *
      * @param bundleContext the context
      * @param logger        the logger
+     * @param configuration the configuration
      */
     @Activate
     public HttpWhiteboardPublisher(BundleContext bundleContext,
-            @Reference(service = LoggerFactory.class) Logger logger) {
+            @Reference(service = LoggerFactory.class) Logger logger, PublisherConfiguration configuration) {
         this.bundleContext = bundleContext;
         this.logger = logger;
+        // longest prefix first so the most specific dispatcher is chosen
+        this.dispatcherPrefixes = Arrays.stream(configuration.dispatcher_prefixes()).map(String::trim)
+                .filter(prefix -> prefix.startsWith("/")).map(prefix -> prefix.replaceAll("/+$", ""))
+                .map(prefix -> prefix.isEmpty() ? "/" : prefix).distinct()
+                .sorted(Comparator.comparingInt(String::length).reversed()).toArray(String[]::new);
     }
 
-    @Reference(cardinality = ReferenceCardinality.OPTIONAL, policy = ReferencePolicy.DYNAMIC)
-    public void setHttpServiceRuntime(HttpServiceRuntime runtime) {
-        System.out.println(">> Got a HttpServiceRuntime: " + runtime);
+    @Reference(cardinality = ReferenceCardinality.OPTIONAL, policy = ReferencePolicy.DYNAMIC,
+            updated = "updatedHttpServiceRuntime")
+    public void setHttpServiceRuntime(HttpServiceRuntime runtime, Map<String, Object> properties) {
+        logger.debug("Got a HttpServiceRuntime: {}", runtime);
+        httpRuntimeChangeCount = properties.get(Constants.SERVICE_CHANGECOUNT);
+        httpEndpoint = getHttpEndpoint(properties);
         httpRuntime.set(runtime);
+        addressChanged();
+    }
+
+    public void updatedHttpServiceRuntime(HttpServiceRuntime runtime, Map<String, Object> properties) {
+        Object changeCount = properties.get(Constants.SERVICE_CHANGECOUNT);
+        if (httpRuntime.get() == runtime && !Objects.equals(changeCount, httpRuntimeChangeCount)) {
+            httpRuntimeChangeCount = changeCount;
+            httpEndpoint = getHttpEndpoint(properties);
+            addressChanged();
+        }
     }
 
     public void unsetHttpServiceRuntime(HttpServiceRuntime runtime) {
-        System.out.println("Runtime is going away: " + runtime);
-        httpRuntime.compareAndSet(runtime, null);
+        logger.debug("HttpServiceRuntime is going away: {}", runtime);
+        if (httpRuntime.compareAndSet(runtime, null)) {
+            httpEndpoint = null;
+            addressChanged();
+        }
+    }
+
+    private static String getHttpEndpoint(Map<String, Object> properties) {
+        Object endpoints = properties.get(HttpServiceRuntimeConstants.HTTP_SERVICE_ENDPOINT);
+        if (endpoints instanceof String endpoint) {
+            return endpoint;
+        }
+        if (endpoints instanceof String[] array && array.length > 0) {
+            return array[0];
+        }
+        if (endpoints instanceof Collection<?> collection && !collection.isEmpty()) {
+            return String.valueOf(collection.iterator().next());
+        }
+        return null;
+    }
+
+    /**
+     * @return the base URL of the http runtime the endpoints are published to or
+     *         <code>null</code> if it is unknown
+     */
+    String getHttpEndpoint() {
+        return httpEndpoint;
+    }
+
+    private void addressChanged() {
+        List<WhiteboardHttpContext> contexts;
+        synchronized (this) {
+            contexts = Stream.concat(servletMap.values().stream(), dispatcherMap.values().stream())
+                    .flatMap(servlet -> servlet.getContexts().stream()).toList();
+        }
+        contexts.forEach(WhiteboardHttpContext::addressChanged);
     }
 
     @Override
     public PublishedEndpoint publishEndpoint(Endpoint endpoint) {
+        return publishEndpoint(endpoint, null);
+    }
+
+    /**
+     * The executor is not set on the endpoint, the {@link WhiteboardHttpContext}
+     * hands the requests to it so the RI processes them on the calling thread and
+     * the context knows when a request is done
+     */
+    @Override
+    public PublishedEndpoint publishEndpoint(Endpoint endpoint, Executor executor) {
         Map<String, Object> properties = endpoint.getProperties();
         Object prefix = properties.get(WebserviceWhiteboardConstants.WEBSERVICE_HTTP_ENDPOINT_PREFIX + "contextPath");
-        System.out.println("WS Context Path is " + prefix);
         if (prefix instanceof String contextPath) {
             logger.info("Registering {} with http whiteboard at context path {}", endpoint, contextPath);
-            WhiteboardHttpContext httpContext = new WhiteboardHttpContext(contextPath, endpoint.getProperties(),
-                    httpRuntime);
-            registrationMap.put(endpoint, httpContext);
+            WhiteboardHttpContext httpContext = new WhiteboardHttpContext(contextPath, endpoint.getProperties(), this,
+                    executor);
             endpoint.publish(httpContext);
-            httpContext.register(bundleContext);
-            System.out.println("Endpoint is published");
+            try {
+                attach(httpContext);
+            } catch (IllegalStateException e) {
+                endpoint.stop();
+                throw e;
+            }
             return httpContext;
         }
         return null;
     }
 
+    /**
+     * Attaches the context to the servlet registered for its path, if there is
+     * already one with the same properties the new context simply replaces the
+     * old one so the path never becomes unavailable while an endpoint is
+     * refreshed. This is only allowed if the new context publishes the same
+     * implementor as the old one, a different endpoint can't take over the path.
+     *
+     * @param httpContext the context to attach
+     * @throws IllegalStateException if the path is already used by another
+     *                               endpoint
+     */
+    private synchronized void attach(WhiteboardHttpContext httpContext) {
+        String prefix = getDispatcherPrefix(httpContext);
+        if (prefix != null) {
+            DispatcherServlet existing = dispatcherMap.get(prefix);
+            if (existing != null) {
+                checkAvailable(existing, httpContext);
+            }
+            dispatcherMap.computeIfAbsent(prefix, key -> {
+                DispatcherServlet dispatcher = new DispatcherServlet(key);
+                dispatcher.register(bundleContext);
+                return dispatcher;
+            }).attach(httpContext);
+            return;
+        }
+        Map<String, Object> properties = httpContext.getServletProperties();
+        JaxWsServlet servlet = servletMap.get(httpContext.getPath());
+        if (servlet != null) {
+            checkAvailable(servlet, httpContext);
+        }
+        if (servlet != null && !servlet.getProperties().equals(properties)) {
+            servletMap.remove(httpContext.getPath());
+            servlet.unregister();
+            servlet = null;
+        }
+        if (servlet == null) {
+            servlet = new JaxWsServlet(properties);
+            servlet.attach(httpContext);
+            servlet.register(bundleContext);
+            servletMap.put(httpContext.getPath(), servlet);
+            logger.debug("Servlet registered with properties {}", properties);
+        } else {
+            servlet.attach(httpContext);
+        }
+    }
+
+    private static void checkAvailable(WhiteboardServlet servlet, WhiteboardHttpContext httpContext) {
+        WhiteboardHttpContext attached = servlet.getContext(httpContext.getPath());
+        if (attached != null && !attached.isSameEndpoint(httpContext)) {
+            throw new IllegalStateException(
+                    "Context path " + httpContext.getPath() + " is already used by another endpoint");
+        }
+    }
+
+    /**
+     * Detaches the context from the servlet registered for its path, the servlet
+     * is only unregistered if the context was not already replaced by another one
+     *
+     * @param httpContext the context to detach
+     */
+    synchronized void detach(WhiteboardHttpContext httpContext) {
+        String prefix = getDispatcherPrefix(httpContext);
+        if (prefix != null) {
+            DispatcherServlet dispatcher = dispatcherMap.get(prefix);
+            if (dispatcher != null && dispatcher.detach(httpContext)) {
+                dispatcherMap.remove(prefix);
+                dispatcher.unregister();
+            }
+            return;
+        }
+        JaxWsServlet servlet = servletMap.get(httpContext.getPath());
+        if (servlet != null && servlet.detach(httpContext)) {
+            servletMap.remove(httpContext.getPath());
+            servlet.unregister();
+        }
+    }
+
+    /**
+     * Determines the dispatcher responsible for the context, endpoints that
+     * carry own http whiteboard properties (e.g. to select a servlet context)
+     * always get their own servlet as they can't share a registration
+     *
+     * @param httpContext the context
+     * @return the prefix of the dispatcher or <code>null</code> if the context
+     *         needs its own servlet
+     */
+    private String getDispatcherPrefix(WhiteboardHttpContext httpContext) {
+        if (dispatcherPrefixes.length == 0 || httpContext.getAttributeNames().stream()
+                .anyMatch(name -> name.startsWith(HTTP_WHITEBOARD_PROPERTY_PREFIX))) {
+            return null;
+        }
+        String path = httpContext.getPath();
+        for (String prefix : dispatcherPrefixes) {
+            if (prefix.equals("/") || path.startsWith(prefix + "/")) {
+                return prefix;
+            }
+        }
+        return null;
+    }
+
 }
@@ -0,0 +1,81 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.osgi.technology.webservices.httpwhiteboard;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Servlet that is registered once per context path and dispatches to the
+ * {@link WhiteboardHttpContext} currently attached to it, this allows to swap
+ * the endpoint behind the path without touching the servlet registration.
+ */
+final class JaxWsServlet extends WhiteboardServlet {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient AtomicReference<WhiteboardHttpContext> context = new AtomicReference<>();
+
+    JaxWsServlet(Map<String, Object> properties) {
+        super(properties);
+    }
+
+    @Override
+    protected void service(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        WhiteboardHttpContext httpContext = context.get();
+        while (httpContext != null) {
+            if (httpContext.service(req, resp, getServletContext())) {
+                return;
+            }
+            // unpublished meanwhile, the endpoint might have been republished
+            WhiteboardHttpContext current = context.get();
+            httpContext = current == httpContext ? null : current;
+        }
+        resp.sendError(HttpURLConnection.HTTP_UNAVAILABLE);
+    }
+
+    @Override
+    List<WhiteboardHttpContext> getContexts() {
+        WhiteboardHttpContext httpContext = context.get();
+        return httpContext == null ? List.of() : List.of(httpContext);
+    }
+
+    @Override
+    WhiteboardHttpContext getContext(String path) {
+        WhiteboardHttpContext httpContext = context.get();
+        return httpContext != null && httpContext.getPath().equals(path) ? httpContext : null;
+    }
+
+    void attach(WhiteboardHttpContext httpContext) {
+        context.set(httpContext);
+    }
+
+    /**
+     * Detaches the given context if it is the current one
+     *
+     * @param httpContext the context to detach
+     * @return <code>true</code> if the context was detached and the servlet is
+     *         now unused
+     */
+    boolean detach(WhiteboardHttpContext httpContext) {
+        return context.compareAndSet(httpContext, null);
+    }
+
+}
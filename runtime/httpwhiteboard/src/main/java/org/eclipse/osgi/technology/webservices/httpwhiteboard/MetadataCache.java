@@ -0,0 +1,320 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.osgi.technology.webservices.httpwhiteboard;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.osgi.technology.webservices.httpwhiteboard.wsri.Compression;
+import org.eclipse.osgi.technology.webservices.httpwhiteboard.wsri.EndpointHttpExchange;
+
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import jakarta.xml.ws.spi.http.HttpContext;
+import jakarta.xml.ws.spi.http.HttpHandler;
+
+/**
+ * Caches the WSDL and XSD documents rendered by the RI for one published
+ * endpoint. As the documents contain the address of the endpoint, they are
+ * cached per request URL. Concurrent requests for a document that is not
+ * cached yet wait for a single render, successful renders are served with a
+ * strong ETag so clients can revalidate with <code>If-None-Match</code>.
+ */
+final class MetadataCache {
+
+    private static final int MAX_ENTRIES = 64;
+
+    private final Map<String, CompletableFuture<Metadata>> cache = new ConcurrentHashMap<>();
+
+    /**
+     * @param req the request
+     * @return <code>true</code> if the request asks for a metadata document
+     */
+    static boolean isMetadataRequest(HttpServletRequest req) {
+        String query = req.getQueryString();
+        if (query == null || !"GET".equals(req.getMethod())) {
+            return false;
+        }
+        String lower = query.toLowerCase(Locale.ROOT);
+        return lower.equals("wsdl") || lower.startsWith("wsdl=") || lower.startsWith("xsd=");
+    }
+
+    /**
+     * Serves a metadata request from the cache, rendering the document first if
+     * required
+     */
+    void serve(HttpHandler httpHandler, HttpServletRequest req, HttpServletResponse resp,
+            ServletContext servletContext, HttpContext httpContext, Compression compression) throws IOException {
+        String key = req.getRequestURL().append('?').append(req.getQueryString()).toString();
+        CompletableFuture<Metadata> future = cache.get(key);
+        if (future == null) {
+            CompletableFuture<Metadata> render = new CompletableFuture<>();
+            if (cache.size() >= MAX_ENTRIES) {
+                // most likely someone plays with the host header, don't cache
+                // anything more then...
+                future = render;
+            } else {
+                future = cache.putIfAbsent(key, render);
+            }
+            if (future == null || future == render) {
+                future = render;
+                render(httpHandler, req, resp, servletContext, httpContext, render);
+                if (render.isCompletedExceptionally() || render.join().etag() == null) {
+                    cache.remove(key, render);
+                }
+            }
+        }
+        Metadata metadata;
+        try {
+            metadata = future.join();
+        } catch (CompletionException e) {
+            if (!resp.isCommitted()) {
+                resp.sendError(HttpURLConnection.HTTP_INTERNAL_ERROR);
+            }
+            return;
+        }
+        write(metadata, req, resp, compression);
+    }
+
+    private static void render(HttpHandler httpHandler, HttpServletRequest req, HttpServletResponse resp,
+            ServletContext servletContext, HttpContext httpContext, CompletableFuture<Metadata> render) {
+        try {
+            CapturingResponse capture = new CapturingResponse(resp);
+            EndpointHttpExchange exchange = new EndpointHttpExchange(req, capture, servletContext, httpContext);
+            httpHandler.handle(exchange);
+            exchange.close();
+            byte[] bytes = capture.getBytes();
+            String etag = capture.status == HttpURLConnection.HTTP_OK ? etag(bytes) : null;
+            render.complete(new Metadata(capture.status, capture.contentType, bytes, etag));
+        } catch (IOException | RuntimeException e) {
+            render.completeExceptionally(e);
+        }
+    }
+
+    private static void write(Metadata metadata, HttpServletRequest req, HttpServletResponse resp,
+            Compression compression) throws IOException {
+        String encoding = compression == null ? null : compression.getEncoding(req, metadata.bytes().length);
+        if (metadata.etag() != null) {
+            // a strong ETag must differ for each encoding of the document
+            String etag = encoding == null ? metadata.etag() : metadata.etag() + "-" + encoding;
+            String quoted = '"' + etag + '"';
+            resp.setHeader("ETag", quoted);
+            if (matches(req.getHeader("If-None-Match"), quoted)) {
+                if (compression != null) {
+                    resp.addHeader("Vary", "Accept-Encoding");
+                }
+                resp.setStatus(HttpURLConnection.HTTP_NOT_MODIFIED);
+                return;
+            }
+        }
+        resp.setStatus(metadata.status());
+        if (metadata.contentType() != null) {
+            resp.setContentType(metadata.contentType());
+        }
+        if (compression == null) {
+            resp.setContentLength(metadata.bytes().length);
+            resp.getOutputStream().write(metadata.bytes());
+            return;
+        }
+        try (OutputStream out = compression.encode(req, resp, resp.getOutputStream())) {
+            if (encoding == null) {
+                resp.setContentLength(metadata.bytes().length);
+            }
+            out.write(metadata.bytes());
+        }
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.startsWith("W/")) {
+                // If-None-Match uses the weak comparison
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals("*") || candidate.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String etag(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 18));
+        } catch (NoSuchAlgorithmException e) {
+            // every VM has to support SHA-256...
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Drops all cached documents
+     */
+    void clear() {
+        cache.clear();
+    }
+
+    private static record Metadata(int status, String contentType, byte[] bytes, String etag) {
+    }
+
+    /**
+     * Passes headers through to the real response but keeps the body, status
+     * and content type so the render can be shared with other requests
+     */
+    private static final class CapturingResponse extends HttpServletResponseWrapper {
+
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        private int status = HttpURLConnection.HTTP_OK;
+        private String contentType;
+        private PrintWriter writer;
+
+        CapturingResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        byte[] getBytes() {
+            if (writer != null) {
+                writer.flush();
+            }
+            return body.toByteArray();
+        }
+
+        @Override
+        public void setStatus(int sc) {
+            status = sc;
+        }
+
+        @Override
+        public int getStatus() {
+            return status;
+        }
+
+        @Override
+        public void sendError(int sc) {
+            status = sc;
+        }
+
+        @Override
+        public void sendError(int sc, String msg) {
+            status = sc;
+        }
+
+        @Override
+        public void setContentType(String type) {
+            contentType = type;
+        }
+
+        @Override
+        public String getContentType() {
+            return contentType;
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            if (!capture(name, value)) {
+                super.setHeader(name, value);
+            }
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            if (!capture(name, value)) {
+                super.addHeader(name, value);
+            }
+        }
+
+        private boolean capture(String name, String value) {
+            if ("Content-Type".equalsIgnoreCase(name)) {
+                contentType = value;
+                return true;
+            }
+            // the length is set when the document is written
+            return "Content-Length".equalsIgnoreCase(name);
+        }
+
+        @Override
+        public void setContentLength(int len) {
+            // set when the document is written
+        }
+
+        @Override
+        public void setContentLengthLong(long len) {
+            // set when the document is written
+        }
+
+        @Override
+        public boolean isCommitted() {
+            return false;
+        }
+
+        @Override
+        public void flushBuffer() {
+            // nothing is written before the render is complete
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            return new ServletOutputStream() {
+
+                @Override
+                public void write(int b) {
+                    body.write(b);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) {
+                    body.write(b, off, len);
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setWriteListener(WriteListener writeListener) {
+                    throw new IllegalStateException("capturing response is blocking");
+                }
+            };
+        }
+
+        @Override
+        public PrintWriter getWriter() {
+            if (writer == null) {
+                writer = new PrintWriter(body, false, StandardCharsets.UTF_8);
+            }
+            return writer;
+        }
+    }
+}
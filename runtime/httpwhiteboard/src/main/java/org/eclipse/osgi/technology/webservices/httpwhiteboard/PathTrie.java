@@ -0,0 +1,159 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.osgi.technology.webservices.httpwhiteboard;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable trie that maps paths segment by segment to a value, modifications
+ * return a new trie that shares all untouched nodes with the previous one so it
+ * can be swapped atomically while requests are routed through the old one.
+ *
+ * @param <T> the type of values
+ */
+final class PathTrie<T> {
+
+    private static final PathTrie<?> EMPTY = new PathTrie<>(null, Map.of());
+
+    private final T value;
+    private final Map<String, PathTrie<T>> children;
+
+    private PathTrie(T value, Map<String, PathTrie<T>> children) {
+        this.value = value;
+        this.children = children;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> PathTrie<T> empty() {
+        return (PathTrie<T>) EMPTY;
+    }
+
+    boolean isEmpty() {
+        return value == null && children.isEmpty();
+    }
+
+    /**
+     * @param path the path to look up, empty segments are ignored
+     * @return the value registered for exactly this path or <code>null</code>
+     */
+    T get(String path) {
+        PathTrie<T> node = this;
+        int length = path.length();
+        int start = 0;
+        while (start < length) {
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = length;
+            }
+            if (end > start) {
+                node = node.children.get(path.substring(start, end));
+                if (node == null) {
+                    return null;
+                }
+            }
+            start = end + 1;
+        }
+        return node.value;
+    }
+
+    /**
+     * @param path  the path
+     * @param value the value, replaces any previous value for the path
+     * @return a trie containing the mapping
+     */
+    PathTrie<T> with(String path, T value) {
+        return with(segments(path), 0, value);
+    }
+
+    /**
+     * @param path  the path
+     * @param value the value to remove
+     * @return a trie without the mapping, if the path is currently mapped to a
+     *         different value this trie is returned unchanged
+     */
+    PathTrie<T> without(String path, T value) {
+        PathTrie<T> trie = without(segments(path), 0, value);
+        return trie == null ? empty() : trie;
+    }
+
+    /**
+     * @return all values of this trie
+     */
+    List<T> values() {
+        List<T> list = new ArrayList<>();
+        collect(list);
+        return list;
+    }
+
+    private void collect(List<T> list) {
+        if (value != null) {
+            list.add(value);
+        }
+        children.values().forEach(child -> child.collect(list));
+    }
+
+    private PathTrie<T> with(List<String> segments, int index, T newValue) {
+        if (index == segments.size()) {
+            return new PathTrie<>(newValue, children);
+        }
+        String segment = segments.get(index);
+        PathTrie<T> child = children.getOrDefault(segment, empty());
+        Map<String, PathTrie<T>> map = new HashMap<>(children);
+        map.put(segment, child.with(segments, index + 1, newValue));
+        return new PathTrie<>(value, Map.copyOf(map));
+    }
+
+    /**
+     * @return the new node, <code>null</code> if the node became empty
+     */
+    private PathTrie<T> without(List<String> segments, int index, T oldValue) {
+        PathTrie<T> node;
+        if (index == segments.size()) {
+            if (value != oldValue) {
+                return this;
+            }
+            node = new PathTrie<>(null, children);
+        } else {
+            String segment = segments.get(index);
+            PathTrie<T> child = children.get(segment);
+            if (child == null) {
+                return this;
+            }
+            PathTrie<T> newChild = child.without(segments, index + 1, oldValue);
+            if (newChild == child) {
+                return this;
+            }
+            Map<String, PathTrie<T>> map = new HashMap<>(children);
+            if (newChild == null) {
+                map.remove(segment);
+            } else {
+                map.put(segment, newChild);
+            }
+            node = new PathTrie<>(value, Map.copyOf(map));
+        }
+        return node.isEmpty() ? null : node;
+    }
+
+    private static List<String> segments(String path) {
+        List<String> list = new ArrayList<>();
+        for (String segment : path.split("/")) {
+            if (!segment.isEmpty()) {
+                list.add(segment);
+            }
+        }
+        return list;
+    }
+}
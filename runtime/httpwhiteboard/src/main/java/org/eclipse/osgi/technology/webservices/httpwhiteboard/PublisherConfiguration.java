@@ -0,0 +1,27 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.osgi.technology.webservices.httpwhiteboard;
+
+/**
+ * Configuration of the {@link HttpWhiteboardPublisher}
+ */
+@interface PublisherConfiguration {
+
+    /**
+     * @return path prefixes that are served by a single dispatcher servlet, an
+     *         endpoint whose path is below one of the prefixes is routed by that
+     *         servlet instead of registering a servlet of its own, if empty every
+     *         endpoint gets its own servlet
+     */
+    String[] dispatcher_prefixes() default {};
+}
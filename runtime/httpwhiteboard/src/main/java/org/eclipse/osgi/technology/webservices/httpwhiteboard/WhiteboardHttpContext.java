@@ -18,44 +18,139 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.Deflater;
 
+import org.eclipse.osgi.technology.webservices.httpwhiteboard.wsri.Compression;
 import org.eclipse.osgi.technology.webservices.httpwhiteboard.wsri.EndpointHttpExchange;
+import org.eclipse.osgi.technology.webservices.propertytypes.EndpointCompression;
 import org.eclipse.osgi.technology.webservices.spi.PublishedEndpoint;
-import org.osgi.framework.BundleContext;
 import org.osgi.framework.Constants;
-import org.osgi.framework.FrameworkUtil;
-import org.osgi.framework.ServiceRegistration;
-import org.osgi.service.http.runtime.HttpServiceRuntime;
-import org.osgi.service.http.runtime.dto.RequestInfoDTO;
 import org.osgi.service.http.whiteboard.HttpWhiteboardConstants;
+import org.osgi.service.webservice.whiteboard.WebserviceWhiteboardConstants;
 
-import jakarta.servlet.Servlet;
-import jakarta.servlet.ServletException;
-import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletContext;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.xml.ws.spi.http.HttpContext;
+import jakarta.xml.ws.spi.http.HttpHandler;
 
 /**
  * Http context to use with the whiteboard
  */
 public class WhiteboardHttpContext extends HttpContext implements PublishedEndpoint {
 
+    private static final String RETRY_AFTER_SECONDS = "1";
+    private static final long DRAIN_TIMEOUT = TimeUnit.SECONDS.toNanos(5);
+    private static final long NOT_INVOKED = Long.MIN_VALUE;
+
+    /**
+     * Endpoint property to disable asynchronous processing of requests if set to
+     * <code>false</code>
+     */
+    public static final String ASYNC_PROPERTY = WebserviceWhiteboardConstants.WEBSERVICE_HTTP_ENDPOINT_PREFIX
+            + "async";
+
+    /**
+     * Endpoint property for the timeout in milliseconds of asynchronously
+     * processed requests, zero or less means no timeout which is also the default
+     * as a SOAP call has no natural upper bound
+     */
+    public static final String ASYNC_TIMEOUT_PROPERTY = WebserviceWhiteboardConstants.WEBSERVICE_HTTP_ENDPOINT_PREFIX
+            + "asyncTimeout";
+
+    /**
+     * Endpoint property to enable non-blocking I/O if set to <code>true</code>,
+     * the request body is then read into pooled buffers before the endpoint is
+     * invoked and the response is written once the endpoint is done, so no thread
+     * is blocked by slow clients. Only used if the request is processed
+     * asynchronously, then the request is processed asynchronously even if the
+     * endpoint has no executor.
+     */
+    public static final String NON_BLOCKING_PROPERTY = WebserviceWhiteboardConstants.WEBSERVICE_HTTP_ENDPOINT_PREFIX
+            + "nonBlocking";
+
+    /**
+     * Endpoint property for the maximum size in bytes of a request body that is
+     * buffered with non-blocking I/O, larger requests are rejected with status
+     * 413
+     */
+    public static final String MAX_BUFFERED_SIZE_PROPERTY = WebserviceWhiteboardConstants.WEBSERVICE_HTTP_ENDPOINT_PREFIX
+            + "maxBufferedSize";
+
+    private static final int DEFAULT_COMPRESSION_THRESHOLD = 1024;
+    private static final long DEFAULT_MAX_BUFFERED_SIZE = 10 * 1024 * 1024;
+    private static final long DEFAULT_MAX_DECOMPRESSED_SIZE = 10 * 1024 * 1024;
+
     private String path;
     private Map<String, ?> attributes;
     private Set<String> names;
-    private boolean closed;
-    private ServiceRegistration<?> serviceRegistration;
-    private AtomicReference<HttpServiceRuntime> httpRuntime;
+    private volatile boolean closed;
+    private HttpWhiteboardPublisher publisher;
+    private List<Runnable> addressChangeListeners = new CopyOnWriteArrayList<>();
+    private final AtomicLong addressVersion = new AtomicLong();
+    private volatile ResolvedAddress resolvedAddress;
+    private final boolean async;
+    private final long asyncTimeout;
+    private final boolean nonBlocking;
+    private final long maxBufferedSize;
+    private final Compression compression;
+    private final MetadataCache metadataCache = new MetadataCache();
+    private final Executor executor;
+    private final ConcurrencyLimiter concurrencyLimiter;
+    private final AtomicInteger activeRequests = new AtomicInteger();
+    private final Object drainLock = new Object();
 
-    WhiteboardHttpContext(String path, Map<String, ?> attributes, AtomicReference<HttpServiceRuntime> httpRuntime) {
+    WhiteboardHttpContext(String path, Map<String, ?> attributes, HttpWhiteboardPublisher publisher,
+            Executor executor) {
         this.path = path;
         this.attributes = attributes;
-        this.httpRuntime = httpRuntime;
+        this.publisher = publisher;
+        this.executor = executor;
         names = Collections.unmodifiableSet(attributes.keySet());
+        async = !"false".equals(String.valueOf(attributes.get(ASYNC_PROPERTY)));
+        asyncTimeout = getLong(attributes.get(ASYNC_TIMEOUT_PROPERTY), 0);
+        nonBlocking = "true".equals(String.valueOf(attributes.get(NON_BLOCKING_PROPERTY)));
+        maxBufferedSize = getLong(attributes.get(MAX_BUFFERED_SIZE_PROPERTY), DEFAULT_MAX_BUFFERED_SIZE);
+        if ("true".equals(String.valueOf(attributes.get(EndpointCompression.COMPRESSION)))) {
+            long level = getLong(attributes.get(EndpointCompression.COMPRESSION_LEVEL), Deflater.DEFAULT_COMPRESSION);
+            compression = new Compression(
+                    (int) getLong(attributes.get(EndpointCompression.COMPRESSION_THRESHOLD),
+                            DEFAULT_COMPRESSION_THRESHOLD),
+                    level < Deflater.NO_COMPRESSION || level > Deflater.BEST_COMPRESSION
+                            ? Deflater.DEFAULT_COMPRESSION
+                            : (int) level,
+                    getLong(attributes.get(EndpointCompression.MAX_DECOMPRESSED_SIZE), DEFAULT_MAX_DECOMPRESSED_SIZE));
+        } else {
+            compression = null;
+        }
+        concurrencyLimiter = ConcurrencyLimiter.create(attributes);
+    }
+
+    static long getLong(Object value, long defaultValue) {
+        if (value instanceof Number number) {
+            return number.longValue();
+        }
+        if (value instanceof String string) {
+            try {
+                return Long.parseLong(string.trim());
+            } catch (NumberFormatException e) {
+                // use the default then...
+            }
+        }
+        return defaultValue;
     }
 
     @Override
@@ -63,6 +158,16 @@ public class WhiteboardHttpContext extends HttpContext implements PublishedEndpo
         return path;
     }
 
+    /**
+     * @param other another context
+     * @return <code>true</code> if both contexts publish the same implementor
+     *         service, that is one is a republish of the other
+     */
+    boolean isSameEndpoint(WhiteboardHttpContext other) {
+        Object serviceId = attributes.get(Constants.SERVICE_ID);
+        return serviceId != null && serviceId.equals(other.attributes.get(Constants.SERVICE_ID));
+    }
+
     @Override
     public Object getAttribute(String name) {
         return attributes.get(name);
@@ -73,74 +178,292 @@ public class WhiteboardHttpContext extends HttpContext implements PublishedEndpo
         return names;
     }
 
-    synchronized void register(BundleContext bundleContext) {
-        if (closed) {
-            return;
-        }
+    Map<String, Object> getServletProperties() {
         HashMap<String, Object> properties = new HashMap<>(attributes);
         if (!properties.containsKey(HttpWhiteboardConstants.HTTP_WHITEBOARD_SERVLET_NAME)) {
             properties.put(HttpWhiteboardConstants.HTTP_WHITEBOARD_SERVLET_NAME,
                     "JAX-WS Service for path " + getPath());
         }
         properties.put(HttpWhiteboardConstants.HTTP_WHITEBOARD_SERVLET_PATTERN, getPath());
-        serviceRegistration = bundleContext.registerService(Servlet.class, new JaxWsServlet(),
-                FrameworkUtil.asDictionary(properties));
-        System.out.println("Http Service registered with properties " + properties);
-        System.out.println(
-                "Service ID is " + serviceRegistration.getReference().getProperties().get(Constants.SERVICE_ID));
+        properties.putIfAbsent(HttpWhiteboardConstants.HTTP_WHITEBOARD_SERVLET_ASYNC_SUPPORTED, Boolean.TRUE);
+        return properties;
+    }
+
+    /**
+     * Serves the request, if the request supports it and the endpoint has an
+     * executor the exchange is processed asynchronously on that executor so the
+     * calling thread is released while the endpoint runs. Without an executor
+     * the request is processed on the calling thread, as handing it to another
+     * container thread would not free any, unless non-blocking I/O is enabled.
+     * WSDL and XSD documents are served from the {@link MetadataCache}
+     *
+     * @return <code>false</code> if the context was already unpublished and the
+     *         request was not touched, the caller might pass it to the context
+     *         that replaced this one
+     */
+    boolean service(HttpServletRequest req, HttpServletResponse resp, ServletContext servletContext)
+            throws IOException {
+        activeRequests.incrementAndGet();
+        if (closed) {
+            requestDone();
+            return false;
+        }
+        boolean dispatched = false;
+        try {
+            HttpHandler httpHandler = handler;
+            if (httpHandler == null) {
+                resp.sendError(HttpURLConnection.HTTP_UNAVAILABLE);
+                return true;
+            }
+            if (MetadataCache.isMetadataRequest(req)) {
+                // cheap to serve once rendered, so not subject to the concurrency limit
+                metadataCache.serve(httpHandler, req, resp, servletContext, this, compression);
+                return true;
+            }
+            ConcurrencyLimiter limiter = concurrencyLimiter;
+            if (limiter != null && !limiter.tryAcquire()) {
+                // shed the load before anything of the request is read
+                resp.setHeader("Retry-After", RETRY_AFTER_SECONDS);
+                resp.sendError(HttpURLConnection.HTTP_UNAVAILABLE);
+                return true;
+            }
+            dispatched = true;
+            dispatch(httpHandler, req, resp, servletContext, limiter);
+            return true;
+        } finally {
+            if (!dispatched) {
+                // otherwise dispatch calls it once the request is done
+                requestDone();
+            }
+        }
     }
 
-    private class JaxWsServlet extends HttpServlet {
+    /**
+     * Completes a dispatched request
+     *
+     * @param limiter the limiter the request was admitted by, might be
+     *                <code>null</code>
+     * @param invoked the time the endpoint was invoked or {@link #NOT_INVOKED},
+     *                the latency is measured from then on so neither reading the
+     *                request body nor waiting for an executor is included
+     */
+    private void requestDone(ConcurrencyLimiter limiter, long invoked) {
+        if (limiter != null) {
+            limiter.release(invoked == NOT_INVOKED ? ConcurrencyLimiter.NO_LATENCY : System.nanoTime() - invoked);
+        }
+        requestDone();
+    }
 
-        private static final long serialVersionUID = 1L;
+    private void requestDone() {
+        if (activeRequests.decrementAndGet() == 0 && closed) {
+            synchronized (drainLock) {
+                drainLock.notifyAll();
+            }
+        }
+    }
 
-        @Override
-        protected void service(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
-            if (handler == null || closed) {
-                resp.sendError(HttpURLConnection.HTTP_UNAVAILABLE);
+    private void dispatch(HttpHandler httpHandler, HttpServletRequest req, HttpServletResponse resp,
+            ServletContext servletContext, ConcurrencyLimiter limiter) throws IOException {
+        if (!async || !req.isAsyncSupported() || (executor == null && !nonBlocking)) {
+            // the endpoint reads the body itself, so it is part of the latency here
+            long invoked = System.nanoTime();
+            try {
+                EndpointHttpExchange exchange = new EndpointHttpExchange(req, resp, servletContext, this);
+                exchange.setCompression(compression);
+                httpHandler.handle(exchange);
+                exchange.close();
+            } finally {
+                requestDone(limiter, invoked);
+            }
+            return;
+        }
+        AsyncContext asyncContext;
+        try {
+            asyncContext = req.startAsync(req, resp);
+        } catch (RuntimeException e) {
+            requestDone(limiter, NOT_INVOKED);
+            throw e;
+        }
+        asyncContext.setTimeout(Math.max(0, asyncTimeout));
+        EndpointHttpExchange exchange = new EndpointHttpExchange(req, resp, servletContext, this, asyncContext);
+        exchange.setCompression(compression);
+        // until the task is submitted the permit has to be released if the
+        // exchange fails while reading the request
+        AtomicBoolean pending = new AtomicBoolean(true);
+        Runnable abort = () -> {
+            exchange.abort();
+            if (pending.compareAndSet(true, false)) {
+                requestDone(limiter, NOT_INVOKED);
+            }
+        };
+        asyncContext.addListener(new AsyncListener() {
+
+            @Override
+            public void onTimeout(AsyncEvent event) throws IOException {
+                if (!exchange.isClosed() && !resp.isCommitted()) {
+                    resp.sendError(HttpURLConnection.HTTP_UNAVAILABLE);
+                }
+                abort.run();
+            }
+
+            @Override
+            public void onError(AsyncEvent event) throws IOException {
+                abort.run();
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {
+                // nothing to do
+            }
+
+            @Override
+            public void onComplete(AsyncEvent event) {
+                // nothing to do
+            }
+        });
+        Runnable task = () -> {
+            long invoked = NOT_INVOKED;
+            try {
+                if (exchange.isClosed()) {
+                    // timed out or failed before it was started
+                    exchange.discard();
+                    return;
+                }
+                invoked = System.nanoTime();
+                handleAsync(httpHandler, exchange, resp);
+            } finally {
+                requestDone(limiter, invoked);
+            }
+        };
+        Runnable submit = () -> {
+            if (pending.compareAndSet(true, false)) {
+                submit(task, asyncContext);
+            }
+        };
+        if (nonBlocking) {
+            try {
+                exchange.readRequestBody(submit, abort, maxBufferedSize);
+            } catch (IOException | RuntimeException e) {
+                abort.run();
+                throw e;
+            }
+        } else {
+            submit.run();
+        }
+    }
+
+    private void submit(Runnable task, AsyncContext asyncContext) {
+        if (executor != null) {
+            try {
+                executor.execute(task);
                 return;
+            } catch (RejectedExecutionException e) {
+                // use the container then...
             }
-            handler.handle(new EndpointHttpExchange(req, resp, getServletContext(), WhiteboardHttpContext.this));
         }
+        asyncContext.start(task);
+    }
 
+    private static void handleAsync(HttpHandler httpHandler, EndpointHttpExchange exchange,
+            HttpServletResponse resp) {
+        try {
+            httpHandler.handle(exchange);
+        } catch (IOException | RuntimeException e) {
+            if (!exchange.isClosed() && !resp.isCommitted()) {
+                try {
+                    resp.sendError(HttpURLConnection.HTTP_INTERNAL_ERROR);
+                } catch (IOException | IllegalStateException ignored) {
+                    // can't report anything then...
+                }
+            }
+        } finally {
+            // usually already closed by the RI
+            exchange.finish();
+        }
     }
 
     @Override
-    public synchronized void unpublish() {
+    public void unpublish() {
         closed = true;
-        if (serviceRegistration != null) {
-            serviceRegistration.unregister();
+        metadataCache.clear();
+        publisher.detach(this);
+        awaitDrained();
+    }
+
+    /**
+     * Waits (bounded) for the requests that entered before the context was
+     * closed, so the endpoint is not stopped while it still processes them
+     */
+    private void awaitDrained() {
+        long deadline = System.nanoTime() + DRAIN_TIMEOUT;
+        synchronized (drainLock) {
+            while (activeRequests.get() > 0) {
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remaining <= 0) {
+                    return;
+                }
+                try {
+                    drainLock.wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    @Override
+    public Map<String, Long> getStatistics() {
+        ConcurrencyLimiter limiter = concurrencyLimiter;
+        return limiter == null ? Map.of() : limiter.getStatistics();
+    }
+
+    @Override
+    public void addAddressChangeListener(Runnable listener) {
+        addressChangeListeners.add(listener);
+    }
+
+    /**
+     * Called when the http runtime or its change count changed, the address is
+     * resolved again and the listeners are notified if it is different now
+     */
+    void addressChanged() {
+        ResolvedAddress previous = resolvedAddress;
+        addressVersion.incrementAndGet();
+        String address = getAddress();
+        if (previous == null || !previous.address().equals(address)) {
+            addressChangeListeners.forEach(Runnable::run);
         }
     }
 
     @Override
     public String getAddress() {
-        System.out.println("WhiteboardHttpContext.getAddress()");
-        HttpServiceRuntime runtime = httpRuntime.get();
-        if (runtime != null) {
-            RequestInfoDTO requestDto = runtime.calculateRequestInfoDTO(getPath());
-            System.out.println(requestDto);
-            System.out.println(runtime.getRuntimeDTO());
-            Object endpoints = runtime.getRuntimeDTO().serviceDTO.properties.get("osgi.http.endpoint");
+        ResolvedAddress resolved = resolvedAddress;
+        long version = addressVersion.get();
+        if (resolved != null && resolved.version() == version) {
+            return resolved.address();
+        }
+        // if the address is invalidated meanwhile the version won't match
+        // and it is resolved again on the next call
+        String address = resolveAddress();
+        resolvedAddress = new ResolvedAddress(version, address);
+        return address;
+    }
+
+    private String resolveAddress() {
+        String baseUrl = publisher.getHttpEndpoint();
+        if (baseUrl != null) {
             try {
-                if (endpoints instanceof String baseUrl) {
-                    System.out.println("baseUrl = " + baseUrl);
-                    String string = new URI(baseUrl).resolve(path).toString();
-                    System.out.println("Full URL: " + string);
-                    return string;
-                } else if (endpoints instanceof String[] baseUrls && baseUrls.length > 0) {
-                    System.out.println("baseUrl = " + baseUrls[0]);
-                    String string = new URI(baseUrls[0]).resolve(path).toString();
-                    System.out.println("Full URL: " + string);
-                    return string;
-                }
+                return new URI(baseUrl).resolve(path).toString();
             } catch (URISyntaxException e) {
-                // TODO Auto-generated catch block
-                e.printStackTrace();
+                // use the plain path then...
             }
         }
         // FIXME we need the full path here, how to get it from the whiteboard?!?
         return path;
     }
 
+    private static record ResolvedAddress(long version, String address) {
+    }
+
 }
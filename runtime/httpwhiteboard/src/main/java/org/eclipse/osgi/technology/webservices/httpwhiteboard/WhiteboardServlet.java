@@ -0,0 +1,71 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.osgi.technology.webservices.httpwhiteboard;
+
+import java.util.List;
+import java.util.Map;
+
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.FrameworkUtil;
+import org.osgi.framework.ServiceRegistration;
+
+import jakarta.servlet.Servlet;
+import jakarta.servlet.http.HttpServlet;
+
+/**
+ * Base for the servlets the publisher registers with the http whiteboard
+ */
+abstract class WhiteboardServlet extends HttpServlet {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient Map<String, Object> properties;
+    private transient ServiceRegistration<Servlet> serviceRegistration;
+
+    WhiteboardServlet(Map<String, Object> properties) {
+        this.properties = properties;
+    }
+
+    Map<String, Object> getProperties() {
+        return properties;
+    }
+
+    /**
+     * @return the contexts currently served by this servlet
+     */
+    abstract List<WhiteboardHttpContext> getContexts();
+
+    /**
+     * @param path the path of an endpoint
+     * @return the context currently published for exactly this path or
+     *         <code>null</code>
+     */
+    abstract WhiteboardHttpContext getContext(String path);
+
+    void register(BundleContext bundleContext) {
+        serviceRegistration = bundleContext.registerService(Servlet.class, this,
+                FrameworkUtil.asDictionary(properties));
+    }
+
+    void unregister() {
+        if (serviceRegistration != null) {
+            try {
+                serviceRegistration.unregister();
+            } catch (IllegalStateException e) {
+                // already gone...
+            }
+            serviceRegistration = null;
+        }
+    }
+
+}
@@ -0,0 +1,50 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.osgi.technology.webservices.httpwhiteboard.wsri;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool of fixed size byte arrays used to buffer request and response bodies,
+ * the pool is bounded so a burst of large messages does not keep its memory
+ * forever.
+ */
+final class BufferPool {
+
+    static final int CHUNK_SIZE = 16 * 1024;
+
+    private static final int MAX_POOLED = 1024;
+    private static final ConcurrentLinkedQueue<byte[]> POOL = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger POOLED = new AtomicInteger();
+
+    private BufferPool() {
+    }
+
+    static byte[] acquire() {
+        byte[] chunk = POOL.poll();
+        if (chunk == null) {
+            return new byte[CHUNK_SIZE];
+        }
+        POOLED.decrementAndGet();
+        return chunk;
+    }
+
+    static void release(byte[] chunk) {
+        if (POOLED.incrementAndGet() <= MAX_POOLED) {
+            POOL.offer(chunk);
+        } else {
+            POOLED.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,173 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.osgi.technology.webservices.httpwhiteboard.wsri;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletOutputStream;
+
+/**
+ * A body kept in chunks taken from the {@link BufferPool}, it is filled and
+ * drained either by the servlet non-blocking I/O callbacks or as a stream by
+ * the RI. A buffer is used by one thread at a time, the servlet container
+ * guarantees the ordering of the callbacks.
+ */
+final class ChunkedBuffer {
+
+    private final List<byte[]> chunks = new ArrayList<>();
+    private long size;
+    // position used when the buffer is drained to a servlet output stream
+    private int writeChunk;
+    private int writeOffset;
+
+    long size() {
+        return size;
+    }
+
+    private byte[] writableChunk() {
+        int offset = (int) (size % BufferPool.CHUNK_SIZE);
+        if (offset == 0 && size / BufferPool.CHUNK_SIZE == chunks.size()) {
+            chunks.add(BufferPool.acquire());
+        }
+        return chunks.get(chunks.size() - 1);
+    }
+
+    void write(byte[] b, int off, int len) {
+        while (len > 0) {
+            byte[] chunk = writableChunk();
+            int offset = (int) (size % BufferPool.CHUNK_SIZE);
+            int n = Math.min(len, chunk.length - offset);
+            System.arraycopy(b, off, chunk, offset, n);
+            size += n;
+            off += n;
+            len -= n;
+        }
+    }
+
+    /**
+     * Reads as much as is available without blocking, but stops once the buffer
+     * holds more than the given number of bytes
+     *
+     * @param in    the stream to read from
+     * @param limit the maximum number of bytes to buffer
+     * @return <code>true</code> if the stream is finished
+     * @throws IOException if reading fails
+     */
+    boolean readFrom(ServletInputStream in, long limit) throws IOException {
+        while (size <= limit && in.isReady()) {
+            byte[] chunk = writableChunk();
+            int offset = (int) (size % BufferPool.CHUNK_SIZE);
+            int n = in.read(chunk, offset, chunk.length - offset);
+            if (n < 0) {
+                return true;
+            }
+            size += n;
+        }
+        return in.isFinished();
+    }
+
+    /**
+     * Writes as much as possible without blocking
+     *
+     * @param out the stream to write to
+     * @return <code>true</code> if everything is written
+     * @throws IOException if writing fails
+     */
+    boolean writeTo(ServletOutputStream out) throws IOException {
+        while (true) {
+            long written = (long) writeChunk * BufferPool.CHUNK_SIZE + writeOffset;
+            if (written >= size) {
+                return true;
+            }
+            if (!out.isReady()) {
+                return false;
+            }
+            int n = (int) Math.min(BufferPool.CHUNK_SIZE - writeOffset, size - written);
+            out.write(chunks.get(writeChunk), writeOffset, n);
+            writeOffset += n;
+            if (writeOffset == BufferPool.CHUNK_SIZE) {
+                writeChunk++;
+                writeOffset = 0;
+            }
+        }
+    }
+
+    InputStream getInputStream() {
+        return new InputStream() {
+
+            private long position;
+
+            @Override
+            public int read() {
+                if (position >= size) {
+                    return -1;
+                }
+                byte b = chunks.get((int) (position / BufferPool.CHUNK_SIZE))[(int) (position
+                        % BufferPool.CHUNK_SIZE)];
+                position++;
+                return b & 0xff;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) {
+                if (len == 0) {
+                    return 0;
+                }
+                if (position >= size) {
+                    return -1;
+                }
+                int offset = (int) (position % BufferPool.CHUNK_SIZE);
+                int n = (int) Math.min(Math.min(len, BufferPool.CHUNK_SIZE - offset), size - position);
+                System.arraycopy(chunks.get((int) (position / BufferPool.CHUNK_SIZE)), offset, b, off, n);
+                position += n;
+                return n;
+            }
+
+            @Override
+            public int available() {
+                return (int) Math.min(Integer.MAX_VALUE, size - position);
+            }
+        };
+    }
+
+    OutputStream getOutputStream() {
+        return new OutputStream() {
+
+            @Override
+            public void write(int b) {
+                byte[] chunk = writableChunk();
+                chunk[(int) (size % BufferPool.CHUNK_SIZE)] = (byte) b;
+                size++;
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                ChunkedBuffer.this.write(b, off, len);
+            }
+        };
+    }
+
+    /**
+     * Returns all chunks to the pool, the buffer must not be used afterwards
+     */
+    void release() {
+        chunks.forEach(BufferPool::release);
+        chunks.clear();
+        size = 0;
+    }
+}
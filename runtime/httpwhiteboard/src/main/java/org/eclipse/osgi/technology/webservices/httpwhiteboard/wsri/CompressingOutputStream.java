@@ -0,0 +1,150 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.osgi.technology.webservices.httpwhiteboard.wsri;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Holds back the first bytes of a response until the threshold is reached,
+ * from then on the response headers are adjusted and everything is compressed
+ * while it is written. Responses that stay below the threshold are written
+ * unchanged.
+ */
+final class CompressingOutputStream extends OutputStream {
+
+    private final OutputStream out;
+    private final HttpServletResponse res;
+    private final String encoding;
+    private final int threshold;
+    private final int level;
+    private byte[] pending;
+    private int count;
+    private OutputStream target;
+    private Deflater deflater;
+    private boolean finished;
+
+    CompressingOutputStream(OutputStream out, HttpServletResponse res, String encoding, int threshold,
+            int level) {
+        this.out = out;
+        this.res = res;
+        this.encoding = encoding;
+        this.threshold = threshold;
+        this.level = level;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[] { (byte) b }, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (finished) {
+            throw new IOException("stream is closed");
+        }
+        if (target == null) {
+            if (count + len <= threshold) {
+                if (pending == null) {
+                    pending = new byte[Math.min(threshold, Math.max(len, 512))];
+                } else if (count + len > pending.length) {
+                    byte[] larger = new byte[Math.min(threshold, Math.max(count + len, pending.length * 2))];
+                    System.arraycopy(pending, 0, larger, 0, count);
+                    pending = larger;
+                }
+                System.arraycopy(b, off, pending, count, len);
+                count += len;
+                return;
+            }
+            startCompression();
+        }
+        target.write(b, off, len);
+    }
+
+    private void startCompression() throws IOException {
+        if (res.isCommitted()) {
+            // too late to announce the encoding...
+            target = out;
+        } else {
+            res.setHeader("Content-Length", null);
+            res.setHeader("Content-Encoding", encoding);
+            deflater = new Deflater(level, Compression.GZIP.equals(encoding));
+            if (Compression.GZIP.equals(encoding)) {
+                target = new GzipEncoder(out, deflater);
+            } else {
+                target = new DeflaterOutputStream(out, deflater, BufferPool.CHUNK_SIZE / 2);
+            }
+        }
+        if (count > 0) {
+            target.write(pending, 0, count);
+        }
+        pending = null;
+        count = 0;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (target != null) {
+            target.flush();
+        }
+    }
+
+    /**
+     * Writes everything held back or buffered by the compressor without closing
+     * the underlying stream
+     *
+     * @throws IOException if writing fails
+     */
+    void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        try {
+            if (target == null) {
+                if (count > 0) {
+                    out.write(pending, 0, count);
+                }
+                pending = null;
+            } else if (target instanceof DeflaterOutputStream encoder) {
+                encoder.finish();
+            }
+        } finally {
+            if (deflater != null) {
+                deflater.end();
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        finish();
+        out.close();
+    }
+
+    private static final class GzipEncoder extends GZIPOutputStream {
+
+        GzipEncoder(OutputStream out, Deflater deflater) throws IOException {
+            super(out, BufferPool.CHUNK_SIZE / 2);
+            // the default deflater has not been used yet, replace it by one with
+            // the configured level
+            def.end();
+            def = deflater;
+        }
+    }
+}
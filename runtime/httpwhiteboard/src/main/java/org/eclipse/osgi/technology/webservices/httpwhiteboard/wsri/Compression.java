@@ -0,0 +1,183 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.osgi.technology.webservices.httpwhiteboard.wsri;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Compression settings of an endpoint, request bodies with a
+ * <code>Content-Encoding</code> of <code>gzip</code> or <code>deflate</code>
+ * are decoded and responses are compressed as soon as they exceed the
+ * threshold if the client accepts it. All data is streamed, only up to
+ * threshold bytes are held back to decide if compression is worth it.
+ */
+public final class Compression {
+
+    static final String GZIP = "gzip";
+    static final String DEFLATE = "deflate";
+
+    private final int threshold;
+    private final int level;
+    private final long maxDecodedSize;
+
+    /**
+     * @param threshold      the minimum size in bytes of a response to be
+     *                       compressed
+     * @param level          the compression level from 0 to 9 or -1 for the
+     *                       default
+     * @param maxDecodedSize the maximum size in bytes of a decoded request body
+     */
+    public Compression(int threshold, int level, long maxDecodedSize) {
+        this.threshold = Math.max(0, threshold);
+        this.level = level;
+        this.maxDecodedSize = maxDecodedSize;
+    }
+
+    InputStream decode(HttpServletRequest req, InputStream in) throws IOException {
+        String encoding = req.getHeader("Content-Encoding");
+        if (encoding == null) {
+            return in;
+        }
+        encoding = encoding.trim();
+        if (GZIP.equalsIgnoreCase(encoding) || "x-gzip".equalsIgnoreCase(encoding)) {
+            return new LimitedInputStream(new GZIPInputStream(in, BufferPool.CHUNK_SIZE), maxDecodedSize);
+        }
+        if (DEFLATE.equalsIgnoreCase(encoding)) {
+            return new LimitedInputStream(new InflaterInputStream(in), maxDecodedSize);
+        }
+        return in;
+    }
+
+    /**
+     * Wraps the given stream so the response is compressed if the client accepts
+     * it and the threshold is exceeded
+     *
+     * @param req the request
+     * @param res the response
+     * @param out the stream that receives the response body
+     * @return the stream to write the response body to
+     */
+    public OutputStream encode(HttpServletRequest req, HttpServletResponse res, OutputStream out) {
+        res.addHeader("Vary", "Accept-Encoding");
+        String encoding = selectEncoding(req.getHeader("Accept-Encoding"));
+        if (encoding == null) {
+            return out;
+        }
+        return new CompressingOutputStream(out, res, encoding, threshold, level);
+    }
+
+    /**
+     * @param req    the request
+     * @param length the length of a response body
+     * @return the encoding a response of the given length will be compressed
+     *         with or <code>null</code> if it will be sent as is
+     */
+    public String getEncoding(HttpServletRequest req, long length) {
+        return length > threshold ? selectEncoding(req.getHeader("Accept-Encoding")) : null;
+    }
+
+    /**
+     * @param acceptEncoding the value of the <code>Accept-Encoding</code> header
+     * @return the encoding to use or <code>null</code> if the response should not
+     *         be compressed
+     */
+    static String selectEncoding(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return null;
+        }
+        boolean deflate = false;
+        for (String element : acceptEncoding.split(",")) {
+            int semicolon = element.indexOf(';');
+            String coding = (semicolon < 0 ? element : element.substring(0, semicolon)).trim();
+            if (semicolon >= 0 && isZeroQuality(element.substring(semicolon + 1))) {
+                continue;
+            }
+            if (GZIP.equalsIgnoreCase(coding) || "x-gzip".equalsIgnoreCase(coding) || "*".equals(coding)) {
+                return GZIP;
+            }
+            if (DEFLATE.equalsIgnoreCase(coding)) {
+                deflate = true;
+            }
+        }
+        return deflate ? DEFLATE : null;
+    }
+
+    private static boolean isZeroQuality(String parameters) {
+        for (String parameter : parameters.split(";")) {
+            int equals = parameter.indexOf('=');
+            if (equals > 0 && "q".equalsIgnoreCase(parameter.substring(0, equals).trim())) {
+                try {
+                    return Double.parseDouble(parameter.substring(equals + 1).trim()) <= 0;
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Fails once more than the given number of bytes is read, so a small
+     * compressed request can't expand without bounds
+     */
+    private static final class LimitedInputStream extends FilterInputStream {
+
+        private final long limit;
+        private long count;
+
+        LimitedInputStream(InputStream in, long limit) {
+            super(in);
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count(n);
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count(skipped);
+            return skipped;
+        }
+
+        private void count(long n) throws IOException {
+            count += n;
+            if (count > limit) {
+                throw new IOException("Decompressed request body exceeds " + limit + " bytes");
+            }
+        }
+    }
+}
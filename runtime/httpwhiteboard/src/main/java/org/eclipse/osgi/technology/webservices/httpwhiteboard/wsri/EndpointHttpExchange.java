@@ -10,6 +10,8 @@
 
 package org.eclipse.osgi.technology.webservices.httpwhiteboard.wsri;
 
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -19,8 +21,14 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.ReadListener;
 import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.xml.ws.handler.MessageContext;
@@ -33,10 +41,22 @@ import jakarta.xml.ws.spi.http.HttpExchange;
 public final class EndpointHttpExchange extends HttpExchange {
     private final HttpServletRequest req;
     private final HttpServletResponse res;
-    private final ExchangeRequestHeaders reqHeaders;
-    private final ExchangeResponseHeaders resHeaders;
+    private ExchangeRequestHeaders reqHeaders;
+    private ExchangeResponseHeaders resHeaders;
+    private InetSocketAddress localAddress;
     private final ServletContext servletContext;
     private final HttpContext httpContext;
+    private final AsyncContext asyncContext;
+    private ChunkedBuffer requestBuffer;
+    private ChunkedBuffer responseBuffer;
+    private boolean nonBlocking;
+    private Compression compression;
+    private InputStream requestBody;
+    private OutputStream responseBody;
+    private volatile int closed;
+    private volatile boolean aborted;
+    private static final AtomicIntegerFieldUpdater<EndpointHttpExchange> CLOSED = AtomicIntegerFieldUpdater
+            .newUpdater(EndpointHttpExchange.class, "closed");
     private static final Set<String> attributes = new HashSet<>();
     static {
         attributes.add(MessageContext.SERVLET_CONTEXT);
@@ -46,21 +66,42 @@ public final class EndpointHttpExchange extends HttpExchange {
 
     public EndpointHttpExchange(HttpServletRequest req, HttpServletResponse res, ServletContext servletContext,
             HttpContext httpContext) {
+        this(req, res, servletContext, httpContext, null);
+    }
+
+    /**
+     * Creates an exchange that completes the given async context once it is
+     * closed
+     *
+     * @param req            the request
+     * @param res            the response
+     * @param servletContext the servlet context
+     * @param httpContext    the http context
+     * @param asyncContext   the async context of the request or
+     *                       <code>null</code> if processed synchronously
+     */
+    public EndpointHttpExchange(HttpServletRequest req, HttpServletResponse res, ServletContext servletContext,
+            HttpContext httpContext, AsyncContext asyncContext) {
+        this.asyncContext = asyncContext;
         this.req = req;
         this.res = res;
         this.servletContext = servletContext;
         this.httpContext = httpContext;
-        this.reqHeaders = new ExchangeRequestHeaders(req);
-        this.resHeaders = new ExchangeResponseHeaders(res);
     }
 
     @Override
     public Map<String, List<String>> getRequestHeaders() {
+        if (reqHeaders == null) {
+            reqHeaders = new ExchangeRequestHeaders(req);
+        }
         return reqHeaders;
     }
 
     @Override
     public Map<String, List<String>> getResponseHeaders() {
+        if (resHeaders == null) {
+            resHeaders = new ExchangeResponseHeaders(res);
+        }
         return resHeaders;
     }
 
@@ -84,28 +125,252 @@ public final class EndpointHttpExchange extends HttpExchange {
         return httpContext;
     }
 
+    /**
+     * Switches the exchange to non-blocking I/O, the request body is read with a
+     * {@link ReadListener} into pooled buffers and once it is complete
+     * <code>onRead</code> is called, the response body is buffered and written
+     * with a {@link WriteListener} when the exchange is closed. This requires
+     * the exchange to be processed asynchronously.
+     *
+     * @param onRead  called once the whole request body is available
+     * @param onError called if reading the request body failed, the exchange is
+     *                already aborted then
+     * @param maxSize the maximum size in bytes of the request body, larger
+     *                requests are rejected with status 413 and
+     *                <code>onError</code> is called
+     * @throws IOException if the input stream can't be obtained
+     */
+    public void readRequestBody(Runnable onRead, Runnable onError, long maxSize) throws IOException {
+        if (asyncContext == null) {
+            throw new IllegalStateException("non-blocking I/O requires an async context");
+        }
+        nonBlocking = true;
+        if (req.getContentLengthLong() > maxSize) {
+            reject(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE);
+            onError.run();
+            return;
+        }
+        ChunkedBuffer buffer = new ChunkedBuffer();
+        requestBuffer = buffer;
+        ServletInputStream in = req.getInputStream();
+        in.setReadListener(new ReadListener() {
+
+            @Override
+            public void onDataAvailable() throws IOException {
+                buffer.readFrom(in, maxSize);
+                if (buffer.size() > maxSize) {
+                    // the handler never saw the buffer, so it can go back to the pool
+                    buffer.release();
+                    reject(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE);
+                    onError.run();
+                }
+            }
+
+            @Override
+            public void onAllDataRead() throws IOException {
+                onRead.run();
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                abort();
+                onError.run();
+            }
+        });
+    }
+
+    /**
+     * Enables compression of the request and response body, must be called
+     * before any of them is obtained
+     *
+     * @param compression the compression settings of the endpoint
+     */
+    public void setCompression(Compression compression) {
+        this.compression = compression;
+    }
+
+    /**
+     * Called by the RI once it is done with the exchange, only then the buffers
+     * are known to be no longer in use and are returned to the pool
+     */
     @Override
     public void close() throws IOException {
+        close(true);
+    }
+
+    /**
+     * Closes the exchange after the handler returned in case the RI did not
+     * close it, the response is still written but the buffers are left to the
+     * garbage collector as it is unknown if anything still uses them
+     */
+    public void finish() {
+        try {
+            close(false);
+        } catch (IOException e) {
+            // nothing we can do here...
+        }
+    }
+
+    private void close(boolean pool) throws IOException {
+        if (!CLOSED.compareAndSet(this, 0, 1)) {
+            return;
+        }
+        if (responseBody instanceof CompressingOutputStream compressing) {
+            try {
+                compressing.finish();
+            } catch (IOException e) {
+                // the client is gone, but the exchange still needs to complete...
+            }
+        }
+        ChunkedBuffer request = requestBuffer;
+        if (request != null && pool) {
+            request.release();
+        }
+        ChunkedBuffer response = responseBuffer;
+        if (response != null && !res.isCommitted()) {
+            try {
+                writeResponse(response, pool);
+                return;
+            } catch (IOException | IllegalStateException e) {
+                // fall through and complete...
+            }
+        }
+        if (response != null && pool) {
+            response.release();
+        }
+        complete();
+    }
+
+    private void writeResponse(ChunkedBuffer buffer, boolean pool) throws IOException {
+        res.setContentLengthLong(buffer.size());
+        ServletOutputStream out = res.getOutputStream();
+        out.setWriteListener(new WriteListener() {
+
+            @Override
+            public void onWritePossible() throws IOException {
+                if (buffer.writeTo(out)) {
+                    if (pool) {
+                        buffer.release();
+                    }
+                    complete();
+                }
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                if (pool) {
+                    buffer.release();
+                }
+                complete();
+            }
+        });
+    }
+
+    /**
+     * Closes the exchange from a thread other than the one handling it, for
+     * example on a timeout or an I/O error reported by the container. Anything
+     * not written yet is discarded and buffers are left to the garbage
+     * collector as the handler might still be using them. Any further read or
+     * write of the handler fails with an {@link IOException} so it stops
+     * processing the request.
+     */
+    public void abort() {
+        if (CLOSED.compareAndSet(this, 0, 1)) {
+            aborted = true;
+            complete();
+        }
+    }
+
+    /**
+     * Returns the buffered request body of an exchange that was aborted before
+     * it was passed to the handler to the pool, nothing else can use it then
+     */
+    public void discard() {
+        ChunkedBuffer request = requestBuffer;
+        if (aborted && request != null) {
+            requestBuffer = null;
+            request.release();
+        }
+    }
+
+    private void reject(int status) {
+        if (CLOSED.compareAndSet(this, 0, 1)) {
+            aborted = true;
+            try {
+                res.sendError(status);
+            } catch (IOException | IllegalStateException e) {
+                // the client is gone, but the exchange still needs to complete...
+            }
+            complete();
+        }
+    }
+
+    private void complete() {
+        if (asyncContext != null) {
+            try {
+                asyncContext.complete();
+            } catch (IllegalStateException e) {
+                // already completed by the container...
+            }
+        }
+    }
+
+    /**
+     * @return <code>true</code> if the exchange was closed
+     */
+    public boolean isClosed() {
+        return closed != 0;
     }
 
     @Override
     public String getRequestHeader(String name) {
-        return reqHeaders.getFirst(name);
+        // as long as nobody has modified the headers, ask the request directly
+        return reqHeaders == null ? req.getHeader(name) : reqHeaders.getFirst(name);
     }
 
     @Override
     public void addResponseHeader(String name, String value) {
-        resHeaders.add(name, value);
+        // through the view so a later clear() of the RI removes it again
+        ((ExchangeResponseHeaders) getResponseHeaders()).add(name, value);
+    }
+
+    private void checkAborted() throws IOException {
+        if (aborted) {
+            throw new IOException("exchange was aborted");
+        }
     }
 
     @Override
     public InputStream getRequestBody() throws IOException {
-        return req.getInputStream();
+        if (requestBody == null) {
+            checkAborted();
+            ChunkedBuffer buffer = requestBuffer;
+            InputStream in = buffer == null ? req.getInputStream() : buffer.getInputStream();
+            if (asyncContext != null) {
+                in = new AbortableInputStream(in);
+            }
+            requestBody = compression == null ? in : compression.decode(req, in);
+        }
+        return requestBody;
     }
 
     @Override
     public OutputStream getResponseBody() throws IOException {
-        return res.getOutputStream();
+        if (responseBody == null) {
+            checkAborted();
+            OutputStream out;
+            if (nonBlocking) {
+                responseBuffer = new ChunkedBuffer();
+                out = responseBuffer.getOutputStream();
+            } else {
+                out = res.getOutputStream();
+            }
+            if (asyncContext != null) {
+                out = new AbortableOutputStream(out);
+            }
+            responseBody = compression == null ? out : compression.encode(req, res, out);
+        }
+        return responseBody;
     }
 
     @Override
@@ -123,7 +388,10 @@ public final class EndpointHttpExchange extends HttpExchange {
 
     @Override
     public InetSocketAddress getLocalAddress() {
-        return InetSocketAddress.createUnresolved(req.getServerName(), req.getServerPort());
+        if (localAddress == null) {
+            localAddress = InetSocketAddress.createUnresolved(req.getServerName(), req.getServerPort());
+        }
+        return localAddress;
     }
 
     @Override
@@ -172,4 +440,56 @@ public final class EndpointHttpExchange extends HttpExchange {
     public String getQueryString() {
         return req.getQueryString();
     }
+
+    /**
+     * Guards the request body of an asynchronous exchange, once it is aborted
+     * the handler can't read any further
+     */
+    private final class AbortableInputStream extends FilterInputStream {
+
+        AbortableInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            checkAborted();
+            return super.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            checkAborted();
+            return super.read(b, off, len);
+        }
+    }
+
+    /**
+     * Guards the response body of an asynchronous exchange, once it is aborted
+     * the handler can't write any further
+     */
+    private final class AbortableOutputStream extends FilterOutputStream {
+
+        AbortableOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            checkAborted();
+            out.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            checkAborted();
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            checkAborted();
+            out.flush();
+        }
+    }
 }
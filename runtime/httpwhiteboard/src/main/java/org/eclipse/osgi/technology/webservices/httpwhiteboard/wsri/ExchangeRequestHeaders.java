@@ -11,10 +11,15 @@
 package org.eclipse.osgi.technology.webservices.httpwhiteboard.wsri;
 
 
-import java.util.Collection;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Enumeration;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
 
 import jakarta.servlet.http.HttpServletRequest;
@@ -22,12 +27,17 @@ import jakarta.xml.ws.spi.http.HttpExchange;
 
 /**
  * {@link HttpExchange#getRequestHeaders} impl for servlet container.
+ * <p>
+ * As long as the headers are only read, all methods delegate to the
+ * {@link HttpServletRequest}, the headers are only copied once they are
+ * modified.
  *
  * @author Jitendra Kotamraju
  */
 class ExchangeRequestHeaders extends Headers {
     private final HttpServletRequest request;
     private boolean useMap = false;
+    private Set<Entry<String, List<String>>> requestEntries;
 
     ExchangeRequestHeaders(HttpServletRequest request) {
         this.request = request;
@@ -35,12 +45,12 @@ class ExchangeRequestHeaders extends Headers {
 
     private void convertToMap() {
         if (!useMap) {
-            Enumeration e = request.getHeaderNames();
-            while(e.hasMoreElements()) {
-                String name = (String)e.nextElement();
-                Enumeration ev = request.getHeaders(name);
+            Enumeration<String> e = request.getHeaderNames();
+            while(e != null && e.hasMoreElements()) {
+                String name = e.nextElement();
+                Enumeration<String> ev = request.getHeaders(name);
                 while(ev.hasMoreElements()) {
-                    String value = (String)ev.nextElement();
+                    String value = ev.nextElement();
                     super.add(name, value);
                 }
             }
@@ -48,16 +58,44 @@ class ExchangeRequestHeaders extends Headers {
         }
     }
 
+    private List<String> getRequestHeaders(String name) {
+        Enumeration<String> e = request.getHeaders(name);
+        if (e == null || !e.hasMoreElements()) {
+            return null;
+        }
+        String first = e.nextElement();
+        if (!e.hasMoreElements()) {
+            return Collections.singletonList(first);
+        }
+        List<String> list = new ArrayList<>(2);
+        list.add(first);
+        while (e.hasMoreElements()) {
+            list.add(e.nextElement());
+        }
+        return Collections.unmodifiableList(list);
+    }
+
     @Override
     public int size() {
-        convertToMap();
-        return super.size();
+        if (useMap) {
+            return super.size();
+        }
+        int size = 0;
+        Enumeration<String> e = request.getHeaderNames();
+        while (e != null && e.hasMoreElements()) {
+            e.nextElement();
+            size++;
+        }
+        return size;
     }
 
     @Override
     public boolean isEmpty() {
-        convertToMap();
-        return super.isEmpty();
+        if (useMap) {
+            return super.isEmpty();
+        }
+        Enumeration<String> e = request.getHeaderNames();
+        return e == null || !e.hasMoreElements();
     }
 
     @Override
@@ -68,16 +106,12 @@ class ExchangeRequestHeaders extends Headers {
         return useMap ? super.containsKey(key) : request.getHeader((String)key) != null;
     }
 
-    @Override
-    public boolean containsValue(Object value) {
-        convertToMap();
-        return super.containsValue(value);
-    }
-
     @Override
     public List<String> get(Object key) {
-        convertToMap();
-        return super.get(key);
+        if (useMap) {
+            return super.get(key);
+        }
+        return key == null ? null : getRequestHeaders((String) key);
     }
 
     @Override
@@ -102,6 +136,7 @@ class ExchangeRequestHeaders extends Headers {
         convertToMap();
         super.set(key, value);
     }
+
     @Override
     public List<String> remove(Object key) {
         convertToMap();
@@ -121,37 +156,62 @@ class ExchangeRequestHeaders extends Headers {
     }
 
     @Override
-    public Set<String> keySet() {
-        convertToMap();
-        return super.keySet();
+    public Set<Entry<String, List<String>>> entrySet() {
+        if (useMap) {
+            return super.entrySet();
+        }
+        Set<Entry<String, List<String>>> es = requestEntries;
+        if (es == null) {
+            es = requestEntries = new RequestEntrySet();
+        }
+        return es;
     }
 
-    @Override
-    public Collection<List<String>> values() {
-        convertToMap();
-        return super.values();
-    }
+    /**
+     * Read-only view of the headers of the request, removing an entry through
+     * the iterator copies the headers first
+     */
+    private final class RequestEntrySet extends AbstractSet<Entry<String, List<String>>> {
 
-    @Override
-    public Set<Entry<String, List<String>>> entrySet() {
-        convertToMap();
-        return super.entrySet();
-    }
+        @Override
+        public Iterator<Entry<String, List<String>>> iterator() {
+            if (useMap) {
+                return ExchangeRequestHeaders.super.entrySet().iterator();
+            }
+            Enumeration<String> names = request.getHeaderNames();
+            return new Iterator<>() {
 
-    @Override
-    public String toString() {
-        convertToMap();
-        return super.toString();
-    }
+                private String current;
 
-    @Override
-    public boolean equals(Object o) {
-        return super.equals(o);
-    }
+                @Override
+                public boolean hasNext() {
+                    return names != null && names.hasMoreElements();
+                }
 
-    @Override
-    public int hashCode() {
-        return super.hashCode();
+                @Override
+                public Entry<String, List<String>> next() {
+                    if (names == null) {
+                        throw new NoSuchElementException();
+                    }
+                    current = names.nextElement();
+                    return new SimpleImmutableEntry<>(normalize(current), getRequestHeaders(current));
+                }
+
+                @Override
+                public void remove() {
+                    if (current == null) {
+                        throw new IllegalStateException();
+                    }
+                    ExchangeRequestHeaders.this.remove(current);
+                    current = null;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return ExchangeRequestHeaders.this.size();
+        }
     }
 
 }
@@ -10,7 +10,11 @@
 
 package org.eclipse.osgi.technology.webservices.httpwhiteboard.wsri;
 
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.AbstractSet;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -20,11 +24,21 @@ import jakarta.xml.ws.spi.http.HttpExchange;
 
 /**
  * {@link HttpExchange#getResponseHeaders} impl for servlet container.
+ * <p>
+ * This is a write-through view of the headers of the
+ * {@link HttpServletResponse}, nothing is stored here. Setting a value
+ * replaces all previous values of the header, a <code>null</code> key is
+ * ignored as it can't be sent anyways. The container and its filters might
+ * have set headers before (e.g. for CORS or cookies), so {@link #remove(Object)}
+ * and {@link #clear()} only affect the headers written through this view.
  *
  * @author Jitendra Kotamraju
  */
 class ExchangeResponseHeaders extends Headers {
     private final HttpServletResponse response;
+    private Set<Entry<String, List<String>>> responseEntries;
+    // names of the headers written through this view, usually only a few
+    private List<String> written;
 
     ExchangeResponseHeaders(HttpServletResponse response) {
         this.response = response;
@@ -32,99 +46,184 @@ class ExchangeResponseHeaders extends Headers {
 
     @Override
     public int size() {
-        return super.size();
+        return response.getHeaderNames().size();
     }
 
     @Override
     public boolean isEmpty() {
-        return super.isEmpty();
+        return response.getHeaderNames().isEmpty();
     }
 
     @Override
     public boolean containsKey(Object key) {
-        return super.containsKey(key);
-    }
-
-    @Override
-    public boolean containsValue(Object value) {
-        return super.containsValue(value);
+        return key instanceof String name && response.containsHeader(name);
     }
 
     @Override
     public List<String> get(Object key) {
-        return super.get(key);
+        if (key == null) {
+            return null;
+        }
+        Collection<String> values = response.getHeaders((String) key);
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        return List.copyOf(values);
     }
 
     @Override
     public String getFirst(String key) {
-        throw new UnsupportedOperationException();
+        return key == null ? null : response.getHeader(key);
     }
 
     @Override
     public List<String> put(String key, List<String> value) {
-        for(String val : value) {
-            response.addHeader(key, val);
+        if (key == null) {
+            return null;
+        }
+        List<String> old = get(key);
+        written(key);
+        if (value == null || value.isEmpty()) {
+            response.setHeader(key, null);
+            return old;
         }
-        return super.put(key, value);
+        Iterator<String> iterator = value.iterator();
+        response.setHeader(key, iterator.next());
+        while (iterator.hasNext()) {
+            response.addHeader(key, iterator.next());
+        }
+        return old;
     }
 
     @Override
     public void add(String key, String value) {
-        response.addHeader(key, value);
-        super.add(key, value);
+        if (key != null) {
+            written(key);
+            response.addHeader(key, value);
+        }
     }
 
     @Override
     public void set(String key, String value) {
-        response.addHeader(key, value);
-        super.set(key, value);
+        if (key != null) {
+            written(key);
+            response.setHeader(key, value);
+        }
     }
 
+    /**
+     * Removes the header if it was written through this view, headers set by
+     * the container are left untouched
+     */
     @Override
     public List<String> remove(Object key) {
-        //TODO how to delete a header in response
-        return super.remove(key);
+        if (!(key instanceof String name) || !removeWritten(name)) {
+            return null;
+        }
+        List<String> old = get(name);
+        if (old != null) {
+            response.setHeader(name, null);
+        }
+        return old;
+    }
+
+    private void written(String key) {
+        List<String> names = written;
+        if (names == null) {
+            names = written = new ArrayList<>(4);
+        } else {
+            for (String name : names) {
+                if (name.equalsIgnoreCase(key)) {
+                    return;
+                }
+            }
+        }
+        names.add(key);
+    }
+
+    private boolean removeWritten(String key) {
+        List<String> names = written;
+        if (names != null) {
+            for (Iterator<String> iterator = names.iterator(); iterator.hasNext();) {
+                if (iterator.next().equalsIgnoreCase(key)) {
+                    iterator.remove();
+                    return true;
+                }
+            }
+        }
+        return false;
     }
 
     @Override
     public void putAll(Map<? extends String, ? extends List<String>> t) {
-        // TODO
-        super.putAll(t);
+        for (Entry<? extends String, ? extends List<String>> entry : t.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
     }
 
+    /**
+     * Removes all headers written through this view, headers set by the
+     * container are left untouched
+     */
     @Override
     public void clear() {
-        // TODO
-        super.clear();
-    }
-
-    @Override
-    public Set<String> keySet() {
-        return super.keySet();
-    }
-
-    @Override
-    public Collection<List<String>> values() {
-        return super.values();
+        List<String> names = written;
+        if (names != null) {
+            written = null;
+            for (String name : names) {
+                response.setHeader(name, null);
+            }
+        }
     }
 
     @Override
     public Set<Entry<String, List<String>>> entrySet() {
-        return super.entrySet();
-    }
-
-    @Override
-    public String toString() {
-        return super.toString();
-    }
+        Set<Entry<String, List<String>>> es = responseEntries;
+        if (es == null) {
+            es = responseEntries = new ResponseEntrySet();
+        }
+        return es;
+    }
+
+    private final class ResponseEntrySet extends AbstractSet<Entry<String, List<String>>> {
+
+        @Override
+        public Iterator<Entry<String, List<String>>> iterator() {
+            Iterator<String> names = List.copyOf(response.getHeaderNames()).iterator();
+            return new Iterator<>() {
+
+                private String current;
+
+                @Override
+                public boolean hasNext() {
+                    return names.hasNext();
+                }
+
+                @Override
+                public Entry<String, List<String>> next() {
+                    current = names.next();
+                    return new SimpleImmutableEntry<>(normalize(current), get(current));
+                }
+
+                @Override
+                public void remove() {
+                    if (current == null) {
+                        throw new IllegalStateException();
+                    }
+                    ExchangeResponseHeaders.this.remove(current);
+                    current = null;
+                }
+            };
+        }
 
-    @Override
-    public boolean equals(Object o) {
-        return super.equals(o);
-    }
+        @Override
+        public int size() {
+            return ExchangeResponseHeaders.this.size();
+        }
 
-    @Override
-    public int hashCode() {
-        return super.hashCode();
+        @Override
+        public void clear() {
+            ExchangeResponseHeaders.this.clear();
+        }
     }
 }
@@ -10,11 +10,14 @@
 
 package org.eclipse.osgi.technology.webservices.httpwhiteboard.wsri;
 
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Set;
 
 /**
@@ -48,49 +51,184 @@ import java.util.Set;
  * as a header line containing the key but no associated value.
  * @since 1.6
  */
-public class Headers implements Map<String,List<String>> {
+public class Headers extends AbstractMap<String,List<String>> {
 
-    HashMap<String,List<String>> map;
+    /* Names of headers that are used by (almost) every SOAP exchange, they are
+     * stored in their normalized form so looking them up never creates a new
+     * String and all instances share the same key objects.
+     */
+    private static final String[] WELL_KNOWN_NAMES = { "Accept", "Accept-charset", "Accept-encoding",
+            "Authorization", "Cache-control", "Connection", "Content-encoding", "Content-length", "Content-type",
+            "Cookie", "Date", "Expect", "Host", "Keep-alive", "Location", "Pragma", "Server", "Soapaction",
+            "Transfer-encoding", "User-agent", "Www-authenticate" };
+
+    private static final String[] WELL_KNOWN_TABLE = new String[64];
+
+    static {
+        for (String name : WELL_KNOWN_NAMES) {
+            int i = hash(name) & (WELL_KNOWN_TABLE.length - 1);
+            while (WELL_KNOWN_TABLE[i] != null) {
+                i = (i + 1) & (WELL_KNOWN_TABLE.length - 1);
+            }
+            WELL_KNOWN_TABLE[i] = name;
+        }
+    }
+
+    private Node[] table;
+    private int size;
+    private Node nullKey;
+    private Set<Entry<String,List<String>>> entrySet;
 
     public Headers() {
-        map = new HashMap<>(32);
+        // the table is created with the first header, views that never store
+        // anything themselves don't need one
+    }
+
+    /* Case-insensitive hash of the key, key is presumed to be ASCII
+     */
+    private static int hash(String key) {
+        int h = 0;
+        for (int i = 0, len = key.length(); i < len; i++) {
+            h = 31 * h + lower(key.charAt(i));
+        }
+        return h ^ (h >>> 16);
+    }
+
+    private static char lower(char c) {
+        return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+
+    private static boolean matches(String normalized, String key) {
+        return normalized.length() == key.length() && normalized.regionMatches(true, 0, key, 0, key.length());
+    }
+
+    static String normalize(String key) {
+        return key == null ? null : normalize(key, hash(key));
     }
 
     /* Normalize the key by converting to following form.
      * First char upper case, rest lower case.
-     * key is presumed to be ASCII
+     * key is presumed to be ASCII, well known names and keys that are already
+     * normalized are returned as is
      */
-    private String normalize (String key) {
-        if (key == null) {
-            return null;
-        }
+    private static String normalize(String key, int hash) {
         int len = key.length();
         if (len == 0) {
             return key;
         }
-        char[] b;
-        String s;
-        b = key.toCharArray();
+        for (int i = hash & (WELL_KNOWN_TABLE.length - 1); WELL_KNOWN_TABLE[i] != null;
+                i = (i + 1) & (WELL_KNOWN_TABLE.length - 1)) {
+            if (matches(WELL_KNOWN_TABLE[i], key)) {
+                return WELL_KNOWN_TABLE[i];
+            }
+        }
+        char c = key.charAt(0);
+        boolean normalized = !(c >= 'a' && c <= 'z');
+        for (int i = 1; normalized && i < len; i++) {
+            c = key.charAt(i);
+            normalized = !(c >= 'A' && c <= 'Z');
+        }
+        if (normalized) {
+            return key;
+        }
+        char[] b = key.toCharArray();
         if (b[0] >= 'a' && b[0] <= 'z') {
             b[0] = (char) (b[0] - ('a' - 'A'));
         }
         for (int i = 1; i < len; i++) {
-            if (b[i] >= 'A' && b[i] <= 'Z') {
-                b[i] = (char) (b[i] + ('a' - 'A'));
+            b[i] = lower(b[i]);
+        }
+        return new String(b);
+    }
+
+    private Node find(String key) {
+        if (key == null) {
+            return nullKey;
+        }
+        Node[] t = table;
+        if (t == null) {
+            return null;
+        }
+        int h = hash(key);
+        for (Node node = t[h & (t.length - 1)]; node != null; node = node.next) {
+            if (node.hash == h && matches(node.key, key)) {
+                return node;
             }
         }
-        s = new String(b);
-        return s;
+        return null;
+    }
+
+    private Node findOrCreate(String key) {
+        Node node = find(key);
+        if (node != null) {
+            return node;
+        }
+        if (key == null) {
+            nullKey = new Node(0, null, null);
+            return nullKey;
+        }
+        if (table == null) {
+            table = new Node[16];
+        } else if (size >= table.length - (table.length >>> 2)) {
+            resize();
+        }
+        int h = hash(key);
+        int index = h & (table.length - 1);
+        node = new Node(h, normalize(key, h), table[index]);
+        table[index] = node;
+        size++;
+        return node;
+    }
+
+    private void resize() {
+        Node[] newTable = new Node[table.length * 2];
+        for (Node head : table) {
+            Node node = head;
+            while (node != null) {
+                Node next = node.next;
+                int index = node.hash & (newTable.length - 1);
+                node.next = newTable[index];
+                newTable[index] = node;
+                node = next;
+            }
+        }
+        table = newTable;
+    }
+
+    private Node removeNode(String key) {
+        if (key == null) {
+            Node node = nullKey;
+            nullKey = null;
+            return node;
+        }
+        if (table == null) {
+            return null;
+        }
+        int h = hash(key);
+        int index = h & (table.length - 1);
+        Node previous = null;
+        for (Node node = table[index]; node != null; previous = node, node = node.next) {
+            if (node.hash == h && matches(node.key, key)) {
+                if (previous == null) {
+                    table[index] = node.next;
+                } else {
+                    previous.next = node.next;
+                }
+                size--;
+                return node;
+            }
+        }
+        return null;
     }
 
     @Override
     public int size() {
-        return map.size();
+        return nullKey == null ? size : size + 1;
     }
 
     @Override
     public boolean isEmpty() {
-        return map.isEmpty();
+        return size() == 0;
     }
 
     @Override
@@ -101,17 +239,13 @@ public class Headers implements Map<String,List<String>> {
         if (!(key instanceof String)) {
             return false;
         }
-        return map.containsKey (normalize((String)key));
-    }
-
-    @Override
-    public boolean containsValue(Object value) {
-        return map.containsValue(value);
+        return find((String) key) != null;
     }
 
     @Override
     public List<String> get(Object key) {
-        return map.get(normalize((String)key));
+        Node node = find((String) key);
+        return node == null ? null : node.value;
     }
 
     /**
@@ -121,7 +255,7 @@ public class Headers implements Map<String,List<String>> {
      * @return the first string value associated with the key
      */
     public String getFirst (String key) {
-        List<String> l = map.get(normalize(key));
+        List<String> l = get(key);
         if (l == null) {
             return null;
         }
@@ -130,7 +264,10 @@ public class Headers implements Map<String,List<String>> {
 
     @Override
     public List<String> put(String key, List<String> value) {
-        return map.put (normalize(key), value);
+        Node node = findOrCreate(key);
+        List<String> old = node.value;
+        node.value = value;
+        return old;
     }
 
     /**
@@ -141,13 +278,11 @@ public class Headers implements Map<String,List<String>> {
      * @param value the header value to add to the header
      */
     public void add (String key, String value) {
-        String k = normalize(key);
-        List<String> l = map.get(k);
-        if (l == null) {
-            l = new LinkedList<>();
-            map.put(k,l);
+        Node node = findOrCreate(key);
+        if (node.value == null) {
+            node.value = new ArrayList<>(1);
         }
-        l.add (value);
+        node.value.add(value);
     }
 
     /**
@@ -158,7 +293,7 @@ public class Headers implements Map<String,List<String>> {
      * @param value the header value to set.
      */
     public void set (String key, String value) {
-        LinkedList<String> l = new LinkedList<>();
+        List<String> l = new ArrayList<>(1);
         l.add (value);
         put (key, l);
     }
@@ -166,7 +301,8 @@ public class Headers implements Map<String,List<String>> {
 
     @Override
     public List<String> remove(Object key) {
-        return map.remove(normalize((String)key));
+        Node node = removeNode((String) key);
+        return node == null ? null : node.value;
     }
 
     @Override
@@ -178,36 +314,132 @@ public class Headers implements Map<String,List<String>> {
 
     @Override
     public void clear() {
-        map.clear();
+        table = null;
+        size = 0;
+        nullKey = null;
     }
 
     @Override
-    public Set<String> keySet() {
-        return map.keySet();
+    public Set<Entry<String, List<String>>> entrySet() {
+        Set<Entry<String,List<String>>> es = entrySet;
+        if (es == null) {
+            es = entrySet = new EntrySet();
+        }
+        return es;
     }
 
-    @Override
-    public Collection<List<String>> values() {
-        return map.values();
-    }
+    private static final class Node implements Entry<String,List<String>> {
 
-    @Override
-    public Set<Entry<String, List<String>>> entrySet() {
-        return map.entrySet();
-    }
+        final int hash;
+        final String key;
+        List<String> value;
+        Node next;
 
-    @Override
-    public boolean equals(Object o) {
-        return map.equals(o);
+        Node(int hash, String key, Node next) {
+            this.hash = hash;
+            this.key = key;
+            this.next = next;
+        }
+
+        @Override
+        public String getKey() {
+            return key;
+        }
+
+        @Override
+        public List<String> getValue() {
+            return value;
+        }
+
+        @Override
+        public List<String> setValue(List<String> newValue) {
+            List<String> old = value;
+            value = newValue;
+            return old;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Entry<?, ?> e && Objects.equals(key, e.getKey())
+                    && Objects.equals(value, e.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(key) ^ Objects.hashCode(value);
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
     }
 
-    @Override
-    public int hashCode() {
-        return map.hashCode();
+    private final class EntrySet extends AbstractSet<Entry<String,List<String>>> {
+
+        @Override
+        public Iterator<Entry<String, List<String>>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return Headers.this.size();
+        }
+
+        @Override
+        public void clear() {
+            Headers.this.clear();
+        }
     }
 
-    @Override
-    public String toString() {
-        return map.toString();
+    private final class EntryIterator implements Iterator<Entry<String,List<String>>> {
+
+        private Node next;
+        private int index;
+        private Node current;
+
+        EntryIterator() {
+            next = nullKey;
+            if (next == null) {
+                advance();
+            }
+        }
+
+        private void advance() {
+            if (next != null && next.key != null) {
+                next = next.next;
+            } else {
+                next = null;
+            }
+            Node[] t = table;
+            while (next == null && t != null && index < t.length) {
+                next = t[index++];
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Entry<String, List<String>> next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            current = next;
+            advance();
+            return current;
+        }
+
+        @Override
+        public void remove() {
+            if (current == null) {
+                throw new IllegalStateException();
+            }
+            removeNode(current.key);
+            current = null;
+        }
     }
 }
@@ -0,0 +1,128 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.osgi.technology.webservices.httpwhiteboard;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Drives the limiter with synthetic latencies, each round occupies all slots
+ * the limiter allows and then releases them with the given latency
+ */
+public class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Test
+    public void testGrowsWhileLatencyIsStable() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1000);
+        long initial = limit(limiter);
+        rounds(limiter, 50, FAST);
+        assertTrue(limit(limiter) > initial, "limit must grow while the latency is stable");
+    }
+
+    @Test
+    public void testShrinksWhenLatencyRises() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(100);
+        rounds(limiter, 50, FAST);
+        long grown = limit(limiter);
+        rounds(limiter, 3, SLOW);
+        long reduced = limit(limiter);
+        assertTrue(reduced < grown, "limit must shrink when the latency rises: " + grown + " -> " + reduced);
+        assertTrue(reduced >= 1, "limit must never drop below one");
+    }
+
+    @Test
+    public void testRecoversFromPermanentLatencyDrift() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(100);
+        rounds(limiter, 50, FAST);
+        rounds(limiter, 3, SLOW);
+        long reduced = limit(limiter);
+        // once the backend is permanently slower the no-load latency follows and
+        // the limit grows again
+        rounds(limiter, 200, SLOW);
+        assertTrue(limit(limiter) > reduced, "limit must recover once the latency is stable again");
+    }
+
+    @Test
+    public void testIgnoresLatencyWithoutLoad() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1000);
+        long initial = limit(limiter);
+        for (int i = 0; i < 100; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(i % 2 == 0 ? FAST : SLOW * 100);
+        }
+        assertEquals(initial, limit(limiter), "a single request in flight must not change the limit");
+    }
+
+    @Test
+    public void testReleaseWithoutLatency() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(100);
+        rounds(limiter, 50, FAST);
+        long grown = limit(limiter);
+        long latency = limiter.getStatistics().get("latency");
+        // requests aborted before the endpoint was invoked free their slot but
+        // must not be taken as a (fast) sample
+        rounds(limiter, 50, ConcurrencyLimiter.NO_LATENCY);
+        assertEquals(grown, limit(limiter));
+        assertEquals(latency, limiter.getStatistics().get("latency"));
+        assertEquals(0, limiter.getStatistics().get("concurrency"));
+    }
+
+    @Test
+    public void testClampsToMaxConcurrency() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(5);
+        assertEquals(5, limit(limiter));
+        rounds(limiter, 100, FAST);
+        assertEquals(5, limit(limiter));
+        long rejected = limiter.getStatistics().get("rejected");
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        assertFalse(limiter.tryAcquire());
+        assertEquals(rejected + 1, limiter.getStatistics().get("rejected"));
+    }
+
+    @Test
+    public void testClampsToMinimum() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(0);
+        assertEquals(1, limiter.getStatistics().get("maxConcurrency"));
+        assertEquals(1, limit(limiter));
+        rounds(limiter, 10, FAST);
+        rounds(limiter, 100, SLOW * 100);
+        assertEquals(1, limit(limiter), "there must always be at least one slot");
+        assertTrue(limiter.tryAcquire());
+    }
+
+    private static long limit(AdaptiveConcurrencyLimiter limiter) {
+        return limiter.getStatistics().get("limit");
+    }
+
+    private static void rounds(AdaptiveConcurrencyLimiter limiter, int count, long latency) {
+        for (int round = 0; round < count; round++) {
+            int acquired = 0;
+            while (limiter.tryAcquire()) {
+                acquired++;
+            }
+            for (int i = 0; i < acquired; i++) {
+                limiter.release(latency);
+            }
+        }
+    }
+}
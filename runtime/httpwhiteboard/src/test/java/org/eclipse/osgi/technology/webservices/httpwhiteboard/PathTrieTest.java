@@ -0,0 +1,104 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.osgi.technology.webservices.httpwhiteboard;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the lookup, update and removal of paths in a {@link PathTrie}
+ */
+public class PathTrieTest {
+
+    @Test
+    public void testExactPathAndPrefix() {
+        PathTrie<String> trie = PathTrie.<String>empty().with("/services/echo", "echo");
+        assertEquals("echo", trie.get("/services/echo"));
+        // a path is only served by the endpoint registered for exactly that
+        // path, the same as a servlet registered with an exact pattern
+        assertNull(trie.get("/services"));
+        assertNull(trie.get("/services/echo/more"));
+        assertNull(trie.get("/services/ech"));
+        assertNull(trie.get("/"));
+    }
+
+    @Test
+    public void testNestedPaths() {
+        PathTrie<String> trie = PathTrie.<String>empty().with("/a", "a").with("/a/b", "b").with("/a/b/c", "c");
+        // the deepest node matching all segments wins, a shorter path is never
+        // used as a fallback
+        assertEquals("a", trie.get("/a"));
+        assertEquals("b", trie.get("/a/b"));
+        assertEquals("c", trie.get("/a/b/c"));
+        assertNull(trie.get("/a/b/c/d"));
+        assertNull(trie.get("/a/x"));
+        assertEquals(List.of("a", "b", "c"), trie.values().stream().sorted().toList());
+    }
+
+    @Test
+    public void testEmptySegmentsIgnored() {
+        PathTrie<String> trie = PathTrie.<String>empty().with("services//echo/", "echo");
+        assertEquals("echo", trie.get("/services/echo"));
+        assertEquals("echo", trie.get("//services/echo//"));
+        PathTrie<String> root = PathTrie.<String>empty().with("/", "root");
+        assertEquals("root", root.get("/"));
+        assertEquals("root", root.get(""));
+    }
+
+    @Test
+    public void testReplace() {
+        PathTrie<String> first = PathTrie.<String>empty().with("/echo", "first");
+        PathTrie<String> second = first.with("/echo", "second");
+        assertEquals("second", second.get("/echo"));
+        // the previous trie is not modified so in-flight lookups stay valid
+        assertEquals("first", first.get("/echo"));
+    }
+
+    @Test
+    public void testRemove() {
+        String echo = "echo";
+        String other = "other";
+        PathTrie<String> trie = PathTrie.<String>empty().with("/a/echo", echo).with("/a/other", other);
+        PathTrie<String> removed = trie.without("/a/echo", echo);
+        assertNull(removed.get("/a/echo"));
+        assertEquals(other, removed.get("/a/other"));
+        assertEquals(echo, trie.get("/a/echo"));
+        assertTrue(removed.without("/a/other", other).isEmpty());
+    }
+
+    @Test
+    public void testRemoveKeepsReplacement() {
+        String previous = new String("echo");
+        String replacement = new String("echo");
+        PathTrie<String> trie = PathTrie.<String>empty().with("/echo", previous).with("/echo", replacement);
+        // a context that was already replaced must not remove its successor
+        assertSame(trie, trie.without("/echo", previous));
+        assertSame(replacement, trie.get("/echo"));
+        assertSame(trie, trie.without("/unknown", replacement));
+    }
+
+    @Test
+    public void testRemoveInnerNode() {
+        PathTrie<String> trie = PathTrie.<String>empty().with("/a", "a").with("/a/b", "b");
+        PathTrie<String> removed = trie.without("/a", "a");
+        assertNull(removed.get("/a"));
+        assertEquals("b", removed.get("/a/b"));
+        assertTrue(removed.without("/a/b", "b").isEmpty());
+    }
+}
@@ -0,0 +1,140 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.osgi.technology.webservices.httpwhiteboard.wsri;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Proxy;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Measures the bytes allocated by the exchange for a typical SOAP request, that
+ * is the lookups the RI performs on every request. The measurement is tagged
+ * with <code>allocation</code> so it can be excluded on unusual VMs with
+ * <code>-DexcludedGroups=allocation</code>.
+ */
+public class EndpointHttpExchangeAllocationTest {
+
+    private static final int WARMUP = 50_000;
+    private static final int ITERATIONS = 200_000;
+    /**
+     * A request allocates about 216 bytes for the exchange itself, the cached
+     * local address and the response header view that tracks the names written
+     * by the RI, but how much escape analysis removes depends on the JIT, so
+     * the bound is loose and only catches gross regressions. The measured value
+     * is reported with the test results.
+     */
+    private static final long MAX_BYTES_PER_REQUEST = 512;
+
+    private final HttpServletRequest request = new HttpServletRequestWrapper(stub(HttpServletRequest.class)) {
+
+        @Override
+        public String getHeader(String name) {
+            return switch (name) {
+            case "Content-Type" -> "text/xml; charset=utf-8";
+            case "SOAPAction" -> "\"echo\"";
+            default -> null;
+            };
+        }
+
+        @Override
+        public String getMethod() {
+            return "POST";
+        }
+
+        @Override
+        public String getServerName() {
+            return "localhost";
+        }
+
+        @Override
+        public int getServerPort() {
+            return 8080;
+        }
+    };
+
+    private final HttpServletResponse response = new HttpServletResponseWrapper(stub(HttpServletResponse.class)) {
+
+        @Override
+        public void addHeader(String name, String value) {
+            // discard
+        }
+
+        @Override
+        public void setStatus(int sc) {
+            // discard
+        }
+    };
+
+    @Test
+    @Tag("allocation")
+    public void testAllocationPerRequest(TestReporter reporter) throws IOException {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported(), "Allocation can't be measured");
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        bean.setThreadAllocatedMemoryEnabled(true);
+        for (int i = 0; i < WARMUP; i++) {
+            handle();
+        }
+        long threadId = Thread.currentThread().getId();
+        long before = bean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < ITERATIONS; i++) {
+            handle();
+        }
+        long bytesPerRequest = (bean.getThreadAllocatedBytes(threadId) - before) / ITERATIONS;
+        reporter.publishEntry("bytesPerRequest", String.valueOf(bytesPerRequest));
+        assertTrue(bytesPerRequest <= MAX_BYTES_PER_REQUEST,
+                "Allocated " + bytesPerRequest + " bytes per request, expected at most " + MAX_BYTES_PER_REQUEST);
+    }
+
+    @Test
+    public void testCachedValues() {
+        EndpointHttpExchange exchange = new EndpointHttpExchange(request, response, null, null);
+        assertSame(exchange.getLocalAddress(), exchange.getLocalAddress());
+        assertSame(exchange.getRequestHeaders(), exchange.getRequestHeaders());
+        assertSame(exchange.getResponseHeaders(), exchange.getResponseHeaders());
+        assertEquals("\"echo\"", exchange.getRequestHeader("SOAPAction"));
+    }
+
+    private void handle() throws IOException {
+        EndpointHttpExchange exchange = new EndpointHttpExchange(request, response, null, null);
+        exchange.getRequestMethod();
+        exchange.getRequestHeader("Content-Type");
+        exchange.getRequestHeader("SOAPAction");
+        exchange.getRequestHeader("Accept");
+        exchange.getLocalAddress();
+        exchange.getLocalAddress();
+        exchange.addResponseHeader("Content-Type", "text/xml; charset=utf-8");
+        exchange.setStatus(200);
+        exchange.close();
+    }
+
+    private static <T> T stub(Class<T> type) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) -> {
+            throw new UnsupportedOperationException(method.getName());
+        }));
+    }
+}
@@ -0,0 +1,181 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.osgi.technology.webservices.httpwhiteboard.wsri;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Tests the write-through view of the response headers against a response
+ * that already carries headers of the container and its filters
+ */
+public class ExchangeResponseHeadersTest {
+
+    private final HeaderResponse response = new HeaderResponse();
+
+    @Test
+    public void testSetAddGet() {
+        ExchangeResponseHeaders headers = new ExchangeResponseHeaders(response);
+        headers.set("Content-Type", "text/xml");
+        assertEquals(List.of("text/xml"), response.headers.get("Content-Type"));
+        assertEquals("text/xml", headers.getFirst("content-type"));
+        headers.set("content-type", "application/soap+xml");
+        assertEquals(List.of("application/soap+xml"), headers.get("Content-Type"));
+        headers.add("X-Trace", "a");
+        headers.add("x-trace", "b");
+        assertEquals(List.of("a", "b"), headers.get("X-TRACE"));
+        assertEquals(List.of("a", "b"), headers.put("X-Trace", List.of("c", "d")));
+        assertEquals(List.of("c", "d"), response.headers.get("X-Trace"));
+        assertTrue(headers.containsKey("x-trace"));
+        assertFalse(headers.containsKey("x-unknown"));
+        assertNull(headers.get("x-unknown"));
+        // a null key can't be sent and is ignored
+        headers.set(null, "value");
+        headers.add(null, "value");
+        assertNull(headers.put(null, List.of("value")));
+        assertNull(headers.get(null));
+        assertEquals(2, headers.size());
+        headers.putAll(Map.of("X-Other", List.of("e")));
+        assertEquals(List.of("e"), response.headers.get("X-Other"));
+        assertEquals(3, headers.size());
+    }
+
+    @Test
+    public void testClearKeepsContainerHeaders() {
+        response.setHeader("Access-Control-Allow-Origin", "*");
+        response.addHeader("Set-Cookie", "session=1");
+        EndpointHttpExchange exchange = new EndpointHttpExchange(stub(HttpServletRequest.class), response, null,
+                null);
+        Map<String, List<String>> headers = exchange.getResponseHeaders();
+        assertEquals(List.of("*"), headers.get("access-control-allow-origin"));
+        assertEquals(2, headers.size());
+        headers.put("Content-Type", List.of("text/xml"));
+        exchange.addResponseHeader("X-Trace", "a");
+        assertEquals(4, headers.size());
+        // the RI clears the headers before it sets its own ones
+        headers.clear();
+        assertEquals(Set.of("Access-Control-Allow-Origin", "Set-Cookie"), response.headers.keySet());
+        assertEquals(2, headers.size());
+        exchange.addResponseHeader("X-Trace", "b");
+        assertEquals(List.of("b"), response.headers.get("X-Trace"));
+        headers.entrySet().clear();
+        assertEquals(Set.of("Access-Control-Allow-Origin", "Set-Cookie"), response.headers.keySet());
+    }
+
+    @Test
+    public void testRemove() {
+        response.addHeader("Set-Cookie", "session=1");
+        ExchangeResponseHeaders headers = new ExchangeResponseHeaders(response);
+        assertNull(headers.remove("Set-Cookie"));
+        assertEquals(List.of("session=1"), response.headers.get("Set-Cookie"));
+        headers.add("X-Trace", "a");
+        assertEquals(List.of("a"), headers.remove("x-TRACE"));
+        assertFalse(response.headers.containsKey("X-Trace"));
+        assertNull(headers.remove("X-Trace"));
+        assertNull(headers.remove(null));
+        assertNull(headers.remove(Integer.valueOf(1)));
+        // a header written through the view replaces the one of the container
+        // and so is owned by the view afterwards
+        headers.set("set-cookie", "session=2");
+        assertEquals(List.of("session=2"), headers.remove("Set-Cookie"));
+        assertTrue(response.headers.isEmpty());
+    }
+
+    @Test
+    public void testEntrySetIterator() {
+        response.setHeader("Access-Control-Allow-Origin", "*");
+        ExchangeResponseHeaders headers = new ExchangeResponseHeaders(response);
+        headers.set("content-type", "text/xml");
+        List<String> keys = new ArrayList<>();
+        for (Iterator<Entry<String, List<String>>> iterator = headers.entrySet().iterator(); iterator.hasNext();) {
+            Entry<String, List<String>> entry = iterator.next();
+            keys.add(entry.getKey());
+            iterator.remove();
+        }
+        // keys are reported in the normalized form
+        assertEquals(List.of("Access-control-allow-origin", "Content-type"), keys);
+        assertEquals(Set.of("Access-Control-Allow-Origin"), response.headers.keySet());
+    }
+
+    private static <T> T stub(Class<T> type) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) -> {
+            throw new UnsupportedOperationException(method.getName());
+        }));
+    }
+
+    /**
+     * Keeps the headers like a container does, setting <code>null</code>
+     * removes the header
+     */
+    private static final class HeaderResponse extends HttpServletResponseWrapper {
+
+        final Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+        HeaderResponse() {
+            super(stub(HttpServletResponse.class));
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            if (value == null) {
+                headers.remove(name);
+            } else {
+                headers.put(name, new ArrayList<>(List.of(value)));
+            }
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            headers.computeIfAbsent(name, key -> new ArrayList<>()).add(value);
+        }
+
+        @Override
+        public boolean containsHeader(String name) {
+            return headers.containsKey(name);
+        }
+
+        @Override
+        public String getHeader(String name) {
+            List<String> values = headers.get(name);
+            return values == null ? null : values.get(0);
+        }
+
+        @Override
+        public Collection<String> getHeaders(String name) {
+            return headers.getOrDefault(name, List.of());
+        }
+
+        @Override
+        public Collection<String> getHeaderNames() {
+            return headers.keySet();
+        }
+    }
+}
@@ -0,0 +1,172 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.osgi.technology.webservices.httpwhiteboard.wsri;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that {@link Headers} fulfills the {@link Map} contract with
+ * case-insensitive keys, the expected state is tracked in a {@link HashMap}
+ * with the normalized keys
+ */
+public class HeadersTest {
+
+    @Test
+    public void testCaseInsensitive() {
+        Headers headers = new Headers();
+        headers.put("content-TYPE", List.of("text/xml"));
+        assertEquals(List.of("text/xml"), headers.get("Content-Type"));
+        assertEquals(List.of("text/xml"), headers.get("CONTENT-TYPE"));
+        assertTrue(headers.containsKey("content-type"));
+        assertEquals("text/xml", headers.getFirst("Content-type"));
+        // keys are reported in their normalized form
+        assertEquals("Content-type", headers.keySet().iterator().next());
+        assertSame(headers.keySet().iterator().next(), Headers.normalize("CONTENT-type"));
+        assertEquals(List.of("text/xml"), headers.put("CONTENT-type", List.of("application/soap+xml")));
+        assertEquals(1, headers.size());
+        headers.add("X-Custom", "a");
+        headers.add("x-custom", "b");
+        assertEquals(List.of("a", "b"), headers.get("X-CUSTOM"));
+        headers.set("x-CUSTOM", "c");
+        assertEquals(List.of("c"), headers.get("X-Custom"));
+        assertEquals(List.of("c"), headers.remove("X-CUSTOM"));
+        assertFalse(headers.containsKey("x-custom"));
+        assertNull(headers.remove("x-custom"));
+        assertNull(headers.get("unknown"));
+        assertNull(headers.getFirst("unknown"));
+        assertEquals(1, headers.size());
+    }
+
+    @Test
+    public void testNullKey() {
+        Headers headers = new Headers();
+        assertNull(headers.get(null));
+        headers.put(null, List.of("status line"));
+        assertEquals(List.of("status line"), headers.get(null));
+        // as the JDK implementation a null key is never reported as contained
+        assertFalse(headers.containsKey(null));
+        assertEquals(1, headers.size());
+        headers.add("Host", "localhost");
+        Map<String, List<String>> expected = new HashMap<>();
+        expected.put(null, List.of("status line"));
+        expected.put("Host", List.of("localhost"));
+        assertEquals(expected, headers);
+        assertEquals(List.of("status line"), headers.remove(null));
+        assertNull(headers.get(null));
+        assertEquals(1, headers.size());
+        assertFalse(headers.containsKey(Integer.valueOf(1)));
+    }
+
+    @Test
+    public void testIteratorRemove() {
+        Headers headers = new Headers();
+        headers.put(null, List.of("null"));
+        for (int i = 0; i < 40; i++) {
+            headers.set("Header-" + i, String.valueOf(i));
+        }
+        Iterator<Entry<String, List<String>>> iterator = headers.entrySet().iterator();
+        assertThrows(IllegalStateException.class, iterator::remove);
+        int seen = 0;
+        while (iterator.hasNext()) {
+            Entry<String, List<String>> entry = iterator.next();
+            seen++;
+            if (entry.getKey() == null || Integer.parseInt(entry.getValue().get(0)) % 2 == 0) {
+                iterator.remove();
+                assertThrows(IllegalStateException.class, iterator::remove);
+            }
+        }
+        assertEquals(41, seen);
+        assertEquals(20, headers.size());
+        assertNull(headers.get(null));
+        for (int i = 0; i < 40; i++) {
+            assertEquals(i % 2 != 0, headers.containsKey("HEADER-" + i), "Header-" + i);
+        }
+        headers.entrySet().clear();
+        assertTrue(headers.isEmpty());
+        assertFalse(headers.entrySet().iterator().hasNext());
+    }
+
+    @Test
+    public void testResize() {
+        Headers headers = new Headers();
+        for (int i = 0; i < 5000; i++) {
+            headers.add("x-header-" + i, String.valueOf(i));
+        }
+        assertEquals(5000, headers.size());
+        for (int i = 0; i < 5000; i++) {
+            assertEquals(List.of(String.valueOf(i)), headers.get("X-HEADER-" + i));
+        }
+        assertEquals(5000, headers.entrySet().stream().count());
+        for (int i = 0; i < 5000; i += 2) {
+            headers.remove("X-Header-" + i);
+        }
+        assertEquals(2500, headers.size());
+        for (int i = 0; i < 5000; i++) {
+            assertEquals(i % 2 != 0, headers.containsKey("x-header-" + i));
+        }
+    }
+
+    @Test
+    public void testAgainstHashMap() {
+        Random random = new Random(4711);
+        String[] names = { null, "Accept", "Content-Type", "SOAPAction", "x-a", "X-B", "Host", "Cookie", "x-c" };
+        Headers headers = new Headers();
+        Map<String, List<String>> expected = new HashMap<>();
+        for (int i = 0; i < 10_000; i++) {
+            String name = names[random.nextInt(names.length)];
+            if (name != null && random.nextBoolean()) {
+                name = random.nextBoolean() ? name.toUpperCase() : name.toLowerCase();
+            }
+            String key = Headers.normalize(name);
+            switch (random.nextInt(4)) {
+            case 0 -> assertEquals(expected.put(key, List.of(String.valueOf(i))),
+                    headers.put(name, List.of(String.valueOf(i))));
+            case 1 -> assertEquals(expected.remove(key), headers.remove(name));
+            case 2 -> assertEquals(expected.get(key), headers.get(name));
+            default -> {
+                headers.set(name, String.valueOf(i));
+                expected.put(key, List.of(String.valueOf(i)));
+            }
+            }
+            assertEquals(expected.size(), headers.size());
+        }
+        assertEquals(expected, headers);
+        assertEquals(headers, expected);
+        assertEquals(expected.hashCode(), headers.hashCode());
+        assertEquals(expected.entrySet(), headers.entrySet());
+        Headers copy = new Headers();
+        copy.putAll(expected);
+        assertEquals(headers, copy);
+        assertEquals(headers.hashCode(), copy.hashCode());
+        copy.add("Another", "value");
+        assertFalse(headers.equals(copy));
+        headers.clear();
+        assertTrue(headers.isEmpty());
+        assertEquals(Map.of(), headers);
+        assertEquals(0, headers.hashCode());
+    }
+}
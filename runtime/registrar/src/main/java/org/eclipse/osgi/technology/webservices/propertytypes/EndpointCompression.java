@@ -0,0 +1,82 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.osgi.technology.webservices.propertytypes;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.osgi.service.component.annotations.ComponentPropertyType;
+import org.osgi.service.webservice.whiteboard.WebserviceWhiteboardConstants;
+
+/**
+ * Annotation that can be used on an endpoint implementor published with the
+ * HTTP whiteboard to decode compressed requests and compress responses
+ */
+@ComponentPropertyType
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface EndpointCompression {
+
+    /**
+     * prefix used for component properties
+     */
+    String PREFIX_ = WebserviceWhiteboardConstants.WEBSERVICE_HTTP_ENDPOINT_PREFIX;
+
+    /**
+     * The name of the service property to enable compression
+     */
+    String COMPRESSION = PREFIX_ + "compression";
+
+    /**
+     * The name of the service property for the minimum size in bytes of a
+     * response to be compressed
+     */
+    String COMPRESSION_THRESHOLD = PREFIX_ + "compressionThreshold";
+
+    /**
+     * The name of the service property for the compression level
+     */
+    String COMPRESSION_LEVEL = PREFIX_ + "compressionLevel";
+
+    /**
+     * The name of the service property for the maximum size in bytes of a
+     * decompressed request body
+     */
+    String MAX_DECOMPRESSED_SIZE = PREFIX_ + "maxDecompressedSize";
+
+    /**
+     * @return <code>true</code> if gzip or deflate encoded requests should be
+     *         decoded and responses compressed if the client accepts it
+     */
+    boolean compression() default true;
+
+    /**
+     * @return the minimum size in bytes of a response to be compressed
+     */
+    int compressionThreshold() default 1024;
+
+    /**
+     * @return the compression level from <code>1</code> (fastest) to
+     *         <code>9</code> (smallest) or <code>-1</code> for the default level
+     */
+    int compressionLevel() default -1;
+
+    /**
+     * @return the maximum size in bytes a compressed request body might expand
+     *         to, reading beyond fails so a small request can't exhaust the
+     *         memory of the endpoint
+     */
+    long maxDecompressedSize() default 10 * 1024 * 1024;
+}
@@ -0,0 +1,89 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.osgi.technology.webservices.propertytypes;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.osgi.service.component.annotations.ComponentPropertyType;
+import org.osgi.service.webservice.whiteboard.WebserviceWhiteboardConstants;
+
+/**
+ * Annotation that can be used on an endpoint implementor to limit the number
+ * of requests it processes concurrently, further requests are rejected with
+ * status 503 by publishers that support limiting the concurrency
+ */
+@ComponentPropertyType
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface EndpointConcurrency {
+
+    /**
+     * prefix used for component properties
+     */
+    String PREFIX_ = WebserviceWhiteboardConstants.WEBSERVICE_ENDPOINT_PREFIX;
+
+    /**
+     * The name of the service property for the maximum number of concurrent
+     * requests
+     */
+    String MAX_CONCURRENCY = PREFIX_ + "maxConcurrency";
+
+    /**
+     * The name of the service property for the number of requests that might
+     * wait for a free slot
+     */
+    String MAX_QUEUE = PREFIX_ + "maxQueue";
+
+    /**
+     * The name of the service property for the time in milliseconds a queued
+     * request waits for a free slot
+     */
+    String QUEUE_TIMEOUT = PREFIX_ + "queueTimeout";
+
+    /**
+     * The name of the service property to adjust the concurrency limit to the
+     * observed latency
+     */
+    String ADAPTIVE_CONCURRENCY = PREFIX_ + "adaptiveConcurrency";
+
+    /**
+     * @return the maximum number of concurrent requests, zero or less means no
+     *         limit
+     */
+    int maxConcurrency() default 0;
+
+    /**
+     * @return the number of requests that might wait for a free slot if the
+     *         endpoint is at its {@link #maxConcurrency()}
+     */
+    int maxQueue() default 0;
+
+    /**
+     * @return the time in milliseconds a queued request waits for a free slot
+     *         before it is rejected
+     */
+    long queueTimeout() default 100;
+
+    /**
+     * If enabled the concurrency of the endpoint is adjusted to its observed
+     * latency, the {@link #maxConcurrency()} is then used as the upper bound and
+     * excess requests are rejected instead of queued
+     *
+     * @return <code>true</code> if the concurrency limit should adapt to the
+     *         latency of the endpoint
+     */
+    boolean adaptiveConcurrency() default false;
+}
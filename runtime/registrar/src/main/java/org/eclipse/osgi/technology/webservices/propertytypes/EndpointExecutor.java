@@ -0,0 +1,52 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.osgi.technology.webservices.propertytypes;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.osgi.service.component.annotations.ComponentPropertyType;
+import org.osgi.service.webservice.whiteboard.WebserviceWhiteboardConstants;
+
+/**
+ * Annotation that can be used on an endpoint implementor to select the
+ * executor that handles its requests
+ */
+@ComponentPropertyType
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface EndpointExecutor {
+
+    /**
+     * prefix used for component properties
+     */
+    String PREFIX_ = WebserviceWhiteboardConstants.WEBSERVICE_PREFIX;
+
+    /**
+     * The name of the service property
+     */
+    String NAME = PREFIX_ + "endpoint.executor";
+
+    /**
+     * Handle each request on its own virtual thread, if the VM does not support
+     * virtual threads the default executor of the publisher is used
+     */
+    String VIRTUAL = "virtual";
+
+    /**
+     * @return the executor to use for the endpoint
+     */
+    String value() default VIRTUAL;
+}
@@ -0,0 +1,93 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.osgi.technology.webservices.propertytypes;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.osgi.service.component.annotations.ComponentPropertyType;
+import org.osgi.service.webservice.whiteboard.WebserviceWhiteboardConstants;
+
+/**
+ * Annotation that can be used on an endpoint implementor to enable
+ * {@link jakarta.xml.ws.WebServiceFeature}s when the endpoint is created
+ */
+@ComponentPropertyType
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface EndpointFeatures {
+
+    /**
+     * prefix used for component properties
+     */
+    String PREFIX_ = WebserviceWhiteboardConstants.WEBSERVICE_ENDPOINT_PREFIX;
+
+    /**
+     * The name of the service property to enable the
+     * {@link jakarta.xml.ws.soap.MTOMFeature}
+     */
+    String MTOM = PREFIX_ + "mtom";
+
+    /**
+     * The name of the service property for the size in bytes above which binary
+     * data is sent as an attachment
+     */
+    String MTOM_THRESHOLD = PREFIX_ + "mtomThreshold";
+
+    /**
+     * The name of the service property to enable the
+     * {@link jakarta.xml.ws.soap.AddressingFeature}
+     */
+    String ADDRESSING = PREFIX_ + "addressing";
+
+    /**
+     * The name of the service property to require WS-Addressing headers
+     */
+    String ADDRESSING_REQUIRED = PREFIX_ + "addressingRequired";
+
+    /**
+     * The name of the service property to enable the
+     * {@link jakarta.xml.ws.RespectBindingFeature}
+     */
+    String RESPECT_BINDING = PREFIX_ + "respectBinding";
+
+    /**
+     * @return <code>true</code> if binary data should be sent as raw MIME parts
+     *         using MTOM/XOP instead of base64 encoded inside the XML
+     */
+    boolean mtom() default false;
+
+    /**
+     * @return the size in bytes above which binary data is sent as an
+     *         attachment if {@link #mtom()} is enabled
+     */
+    int mtomThreshold() default 0;
+
+    /**
+     * @return <code>true</code> if WS-Addressing should be enabled
+     */
+    boolean addressing() default false;
+
+    /**
+     * @return <code>true</code> if requests must carry WS-Addressing headers if
+     *         {@link #addressing()} is enabled
+     */
+    boolean addressingRequired() default false;
+
+    /**
+     * @return <code>true</code> if the binding of the WSDL must be respected
+     */
+    boolean respectBinding() default false;
+}
@@ -13,6 +13,7 @@
 package org.eclipse.osgi.technology.webservices.publisher;
 
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.osgi.technology.webservices.spi.EndpointPublisher;
 import org.eclipse.osgi.technology.webservices.spi.PublishedEndpoint;
@@ -38,6 +39,7 @@ import jakarta.xml.ws.Endpoint;
 public class GenericPublisher implements EndpointPublisher {
 
     private Logger logger;
+    private Map<String, Endpoint> addressMap = new ConcurrentHashMap<>();
 
     /**
      * constructor
@@ -57,11 +59,20 @@ public class GenericPublisher implements EndpointPublisher {
         if (epAddress instanceof String address && !address.isEmpty()) {
             logger.info("Registering {} with generic publisher and address {}", endpoint, address);
             logger.debug(">>> PUBLISH EP @ " + epAddress + " properties=" + properties);
+            Endpoint previous = addressMap.get(address);
+            if (previous != null && previous.getImplementor() == endpoint.getImplementor()) {
+                // a refresh of the same implementor, the address can only be bound once
+                // so the previous endpoint has to go away before the new one can be
+                // published...
+                previous.stop();
+            }
             endpoint.publish(address);
+            addressMap.put(address, endpoint);
             return new PublishedEndpoint() {
 
                 @Override
                 public void unpublish() {
+                    addressMap.remove(address, endpoint);
                     endpoint.stop();
 
                 }
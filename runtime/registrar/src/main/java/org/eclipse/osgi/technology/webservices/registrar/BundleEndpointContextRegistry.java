@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.osgi.technology.webservices.registrar;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.BundleEvent;
+import org.osgi.framework.SynchronousBundleListener;
+
+/**
+ * Holds the {@link BundleEndpointContext} of each bundle that provides
+ * endpoints, contexts can be obtained concurrently and are discarded once their
+ * bundle is stopped or uninstalled.
+ */
+final class BundleEndpointContextRegistry implements SynchronousBundleListener {
+
+    private final Map<Bundle, BundleEndpointContext> contexts = new ConcurrentHashMap<>();
+    private final BundleContext bundleContext;
+
+    BundleEndpointContextRegistry(BundleContext bundleContext) {
+        this.bundleContext = bundleContext;
+        bundleContext.addBundleListener(this);
+    }
+
+    /**
+     * @param bundle the bundle providing an endpoint
+     * @return the context shared by all endpoints of the bundle or
+     *         <code>null</code> if the bundle is <code>null</code>, for example
+     *         because the service is already unregistered
+     */
+    BundleEndpointContext getContext(Bundle bundle) {
+        if (bundle == null) {
+            return null;
+        }
+        return contexts.computeIfAbsent(bundle, BundleEndpointContext::new);
+    }
+
+    @Override
+    public void bundleChanged(BundleEvent event) {
+        int type = event.getType();
+        if (type == BundleEvent.STOPPED || type == BundleEvent.UNINSTALLED) {
+            contexts.remove(event.getBundle());
+        }
+    }
+
+    void close() {
+        try {
+            bundleContext.removeBundleListener(this);
+        } catch (IllegalStateException e) {
+            // the context is already invalid...
+        }
+        contexts.clear();
+    }
+
+}
@@ -0,0 +1,140 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.osgi.technology.webservices.registrar;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+import org.eclipse.osgi.technology.webservices.propertytypes.EndpointExecutor;
+import org.osgi.service.log.Logger;
+
+/**
+ * Supplies the executors selected by endpoints with the
+ * {@link EndpointExecutor#NAME} property. Virtual threads are only available on
+ * VMs that support them, as the bundle targets an older release they are
+ * accessed by reflection. While virtual threads are in use, pinning of their
+ * carrier threads is reported by a JFR stream if the VM provides one.
+ */
+final class EndpointExecutors {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private final Logger logger;
+    private final long pinningThreshold;
+    private ExecutorService virtualExecutor;
+    private AutoCloseable pinningMonitor;
+    private boolean closed;
+
+    /**
+     * @param logger           the logger
+     * @param pinningThreshold the minimum duration in milliseconds a pinned
+     *                         virtual thread is reported, smaller than zero
+     *                         disables the diagnostics
+     */
+    EndpointExecutors(Logger logger, long pinningThreshold) {
+        this.logger = logger;
+        this.pinningThreshold = pinningThreshold;
+    }
+
+    /**
+     * @param value the value of the {@link EndpointExecutor#NAME} property
+     * @return the executor to use or <code>null</code> to use the default of the
+     *         publisher
+     */
+    Executor getExecutor(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (EndpointExecutor.VIRTUAL.equalsIgnoreCase(String.valueOf(value).trim())) {
+            return getVirtualExecutor();
+        }
+        logger.warn("Unknown executor {} requested, using the default", value);
+        return null;
+    }
+
+    private synchronized Executor getVirtualExecutor() {
+        if (virtualExecutor == null && !closed) {
+            virtualExecutor = newVirtualThreadExecutor();
+            if (virtualExecutor == null) {
+                logger.warn("Virtual threads are not supported by this VM, using the default executor instead");
+                closed = true;
+                return null;
+            }
+            if (pinningThreshold >= 0) {
+                pinningMonitor = startPinningMonitor();
+            }
+        }
+        return virtualExecutor;
+    }
+
+    private AutoCloseable startPinningMonitor() {
+        Optional<Module> jfr = ModuleLayer.boot().findModule("jdk.jfr");
+        if (jfr.isEmpty()) {
+            logger.info("JFR is not available, virtual thread pinning is not reported");
+            return null;
+        }
+        try {
+            Class<?> streamClass = Class.forName(jfr.get(), "jdk.jfr.consumer.RecordingStream");
+            Class<?> settingsClass = Class.forName(jfr.get(), "jdk.jfr.EventSettings");
+            if (streamClass == null || settingsClass == null) {
+                return null;
+            }
+            AutoCloseable stream = (AutoCloseable) streamClass.getConstructor().newInstance();
+            Object settings = streamClass.getMethod("enable", String.class).invoke(stream, PINNED_EVENT);
+            settingsClass.getMethod("withThreshold", Duration.class).invoke(settings,
+                    Duration.ofMillis(pinningThreshold));
+            settingsClass.getMethod("withStackTrace").invoke(settings);
+            Consumer<Object> consumer = event -> logger.warn("Virtual thread pinned its carrier thread: {}", event);
+            streamClass.getMethod("onEvent", String.class, Consumer.class).invoke(stream, PINNED_EVENT, consumer);
+            Method startAsync = streamClass.getMethod("startAsync");
+            startAsync.invoke(stream);
+            return stream;
+        } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+            logger.info("Virtual thread pinning can't be reported: {}", String.valueOf(e));
+            return null;
+        }
+    }
+
+    synchronized void close() {
+        closed = true;
+        if (pinningMonitor != null) {
+            try {
+                pinningMonitor.close();
+            } catch (Exception e) {
+                // nothing we can do...
+            }
+            pinningMonitor = null;
+        }
+        if (virtualExecutor != null) {
+            virtualExecutor.shutdownNow();
+            virtualExecutor = null;
+        }
+    }
+
+    /**
+     * @return an executor that starts a new virtual thread for each task or
+     *         <code>null</code> if the VM does not support virtual threads
+     */
+    static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+}
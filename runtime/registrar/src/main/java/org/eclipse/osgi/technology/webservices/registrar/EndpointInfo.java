@@ -12,28 +12,33 @@
  *******************************************************************************/
 package org.eclipse.osgi.technology.webservices.registrar;
 
-import java.util.Comparator;
+import java.util.ArrayList;
 import java.util.Dictionary;
 import java.util.Enumeration;
 import java.util.Hashtable;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Objects;
+import java.util.concurrent.Executor;
 
+import org.eclipse.osgi.technology.webservices.propertytypes.EndpointExecutor;
+import org.eclipse.osgi.technology.webservices.propertytypes.EndpointFeatures;
+import org.eclipse.osgi.technology.webservices.runtime.PublishedEndpointDTO;
 import org.eclipse.osgi.technology.webservices.spi.EndpointPublisher;
 import org.eclipse.osgi.technology.webservices.spi.PublishedEndpoint;
-import org.osgi.framework.Bundle;
 import org.osgi.framework.BundleContext;
 import org.osgi.framework.ServiceReference;
 import org.osgi.framework.dto.ServiceReferenceDTO;
-import org.osgi.service.component.propertytypes.ServiceRanking;
 import org.osgi.service.webservice.runtime.dto.EndpointDTO;
 import org.osgi.service.webservice.runtime.dto.FailedEndpointDTO;
 import org.osgi.service.webservice.runtime.dto.HandlerDTO;
 
 import jakarta.xml.ws.Endpoint;
+import jakarta.xml.ws.RespectBindingFeature;
+import jakarta.xml.ws.WebServiceFeature;
 import jakarta.xml.ws.handler.Handler;
+import jakarta.xml.ws.soap.AddressingFeature;
+import jakarta.xml.ws.soap.MTOMFeature;
 
 class EndpointInfo {
 
@@ -45,9 +50,13 @@ class EndpointInfo {
     private Exception publishError;
     private Object service;
     private Endpoint endpoint;
+    private Executor executor;
     private List<HandlerInfo> handlerList;
     private BundleEndpointContext endpointContext;
     private PublishedEndpoint publishedEndpoint;
+    private boolean dtoValid;
+    private EndpointDTO endpointDTO;
+    private FailedEndpointDTO failedEndpointDTO;
 
     EndpointInfo(ServiceReference<?> reference, BundleContext bundleContext) {
         this.reference = reference;
@@ -82,15 +91,33 @@ class EndpointInfo {
         publishedEndpoint = null;
         publishError = null;
         endpoint = null;
+        executor = null;
         createError = null;
         service = null;
         lookupError = null;
         handlerList = null;
         handlerError = null;
         endpointContext = null;
+        dtoValid = false;
         return reference;
     }
 
+    ServiceReference<?> getReference() {
+        return reference;
+    }
+
+    /**
+     * @return <code>true</code> if the endpoint was created but no publisher was
+     *         able to publish it, e.g. because its address is in use
+     */
+    synchronized boolean isPublishFailed() {
+        return publishError != null;
+    }
+
+    synchronized boolean isBoundTo(HandlerInfo handlerInfo) {
+        return handlerList != null && handlerList.contains(handlerInfo);
+    }
+
     synchronized Object fetchImplementor() {
         if (service == null) {
             try {
@@ -102,31 +129,23 @@ class EndpointInfo {
         return service;
     }
 
-    synchronized Endpoint createEndpoint(Map<ServiceReference<?>, HandlerInfo> handlerMap,
-            Map<Bundle, BundleEndpointContext> contextMap) {
+    synchronized Endpoint createEndpoint(HandlerIndex handlerMap,
+            BundleEndpointContextRegistry contextRegistry,
+            EndpointExecutors executors) {
         if (endpoint == null) {
             try {
-                endpoint = Endpoint.create(Objects.requireNonNull(fetchImplementor()));
+                endpoint = Endpoint.create(Objects.requireNonNull(fetchImplementor()), createFeatures());
                 endpoint.setProperties(getServiceProperties());
+                // handed to the publisher, it knows best how to dispatch to it
+                executor = executors.getExecutor(reference.getProperty(EndpointExecutor.NAME));
             } catch (RuntimeException e) {
                 createError = e;
                 return null;
             }
-            handlerList = handlerMap.values().stream().filter(handlerInfo -> handlerInfo.matches(reference))
-                    .sorted(HandlerInfo.SORT_BY_PRIORITY).toList();
-            System.out.println("Handler List is: ");
-            for (HandlerInfo handlerInfo : handlerList) {
-                System.out.println(" Rank " + handlerInfo.getServiceRank() + " / Id " + handlerInfo.getServiceId()
-                        + " = " + handlerInfo.fetchHandler());
-            }
+            handlerList = computeHandlerList(handlerMap);
             @SuppressWarnings("rawtypes") // required by API...
-            List<Handler> chain = handlerList.stream().map(info -> info.fetchHandler()).filter(Objects::nonNull)
-                    .map(Handler.class::cast).toList();
+            List<Handler> chain = toHandlerChain(handlerList);
             if (!chain.isEmpty()) {
-                System.out.println("Set Handler Chain:");
-                for (int i = 0; i < chain.size(); i++) {
-                    System.out.println("  " + i + ") " + chain.get(i));
-                }
                 try {
                     endpoint.getBinding().setHandlerChain(chain);
                 } catch (RuntimeException e) {
@@ -134,17 +153,30 @@ class EndpointInfo {
                     return null;
                 }
             }
-            endpointContext = contextMap.computeIfAbsent(reference.getBundle(), BundleEndpointContext::new);
-            endpointContext.addEndpoint(endpoint);
-            try {
-                endpoint.setEndpointContext(endpointContext);
-            } catch (RuntimeException e) {
-                // this is optional...
+            endpointContext = contextRegistry.getContext(reference.getBundle());
+            if (endpointContext != null) {
+                endpointContext.addEndpoint(endpoint);
+                try {
+                    endpoint.setEndpointContext(endpointContext);
+                } catch (RuntimeException e) {
+                    // this is optional...
+                }
             }
         }
         return endpoint;
     }
 
+    private List<HandlerInfo> computeHandlerList(HandlerIndex handlerMap) {
+        return handlerMap.candidates(reference).stream().filter(handlerInfo -> handlerInfo.matches(reference))
+                .sorted(HandlerInfo.SORT_BY_PRIORITY).toList();
+    }
+
+    @SuppressWarnings("rawtypes") // required by API...
+    private static List<Handler> toHandlerChain(List<HandlerInfo> list) {
+        return list.stream().map(info -> info.fetchHandler()).filter(Objects::nonNull).map(Handler.class::cast)
+                .toList();
+    }
+
     private Map<String, Object> getServiceProperties() {
         Hashtable<String, Object> hashtable = new Hashtable<>();
         Dictionary<String, Object> properties = reference.getProperties();
@@ -160,18 +192,26 @@ class EndpointInfo {
         return hashtable;
     }
 
-    synchronized PublishedEndpoint publishEndpoint(Map<ServiceReference<?>, HandlerInfo> handlerMap,
-            Map<Bundle, BundleEndpointContext> contextMap,
-            Map<EndpointPublisher, ServiceRanking> endpointPublisherMap) {
-        Endpoint ep = createEndpoint(handlerMap, contextMap);
+    synchronized PublishedEndpoint publishEndpoint(HandlerIndex handlerMap,
+            BundleEndpointContextRegistry contextRegistry, EndpointExecutors executors,
+            EndpointPublisher[] rankedPublishers, Runnable addressChangeListener) {
+        dtoValid = false;
+        Endpoint ep = createEndpoint(handlerMap, contextRegistry, executors);
         if (ep == null) {
             return null;
         }
         try {
-            publishedEndpoint = endpointPublisherMap.entrySet().stream()
-                    .sorted(Comparator.comparing(Entry::getValue, Comparator.comparingInt(ServiceRanking::value)))
-                    .map(Entry::getKey).map(publisher -> publisher.publishEndpoint(ep)).filter(Objects::nonNull)
-                    .findFirst().orElseThrow(() -> new IllegalStateException("No applicable EndpointPublisher"));
+            for (EndpointPublisher publisher : rankedPublishers) {
+                publishedEndpoint = publisher.publishEndpoint(ep, executor);
+                if (publishedEndpoint != null) {
+                    publishedEndpoint.addAddressChangeListener(() -> {
+                        invalidateDTOs();
+                        addressChangeListener.run();
+                    });
+                    return publishedEndpoint;
+                }
+            }
+            throw new IllegalStateException("No applicable EndpointPublisher");
         } catch (RuntimeException e) {
             publishError = e;
         }
@@ -179,10 +219,78 @@ class EndpointInfo {
 
     }
 
+    /**
+     * @return the features enabled by the {@link EndpointFeatures} properties of
+     *         the implementor
+     */
+    private WebServiceFeature[] createFeatures() {
+        List<WebServiceFeature> features = new ArrayList<>();
+        if (isEnabled(EndpointFeatures.MTOM)) {
+            features.add(new MTOMFeature(true, Math.max(0, getInt(EndpointFeatures.MTOM_THRESHOLD))));
+        }
+        if (isEnabled(EndpointFeatures.ADDRESSING)) {
+            features.add(new AddressingFeature(true, isEnabled(EndpointFeatures.ADDRESSING_REQUIRED)));
+        }
+        if (isEnabled(EndpointFeatures.RESPECT_BINDING)) {
+            features.add(new RespectBindingFeature(true));
+        }
+        return features.toArray(WebServiceFeature[]::new);
+    }
+
+    private boolean isEnabled(String property) {
+        return Boolean.parseBoolean(String.valueOf(reference.getProperty(property)));
+    }
+
+    private int getInt(String property) {
+        Object value = reference.getProperty(property);
+        if (value instanceof Number number) {
+            return number.intValue();
+        }
+        if (value != null) {
+            try {
+                return Integer.parseInt(value.toString().trim());
+            } catch (NumberFormatException e) {
+                // use the default then...
+            }
+        }
+        return 0;
+    }
+
+    private synchronized void invalidateDTOs() {
+        dtoValid = false;
+    }
+
+    /**
+     * The DTOs are cached until the state of this endpoint changes, so unchanged
+     * endpoints return the same instances
+     */
+    private void validateDTOs() {
+        if (!dtoValid) {
+            endpointDTO = createEndpointDTO();
+            failedEndpointDTO = createFailedEndpointDTO();
+            dtoValid = true;
+        }
+    }
+
+    synchronized PublishedEndpoint getPublishedEndpoint() {
+        return publishedEndpoint;
+    }
+
     synchronized EndpointDTO getEndpointDTO() {
+        validateDTOs();
+        return endpointDTO;
+    }
+
+    synchronized FailedEndpointDTO getFailedEndpointDTO() {
+        validateDTOs();
+        return failedEndpointDTO;
+    }
+
+    private EndpointDTO createEndpointDTO() {
         if (publishedEndpoint != null) {
-            EndpointDTO dto = new EndpointDTO();
+            PublishedEndpointDTO dto = new PublishedEndpointDTO();
             dto.address = publishedEndpoint.getAddress();
+            dto.statistics = Map.copyOf(publishedEndpoint.getStatistics());
             dto.handlers = handlerList.stream().map(hi -> hi.getDto()).filter(Objects::nonNull)
                     .toArray(HandlerDTO[]::new);
             dto.implementor = reference.adapt(ServiceReferenceDTO.class);
@@ -191,7 +299,7 @@ class EndpointInfo {
         return null;
     }
 
-    synchronized FailedEndpointDTO getFailedEndpointDTO() {
+    private FailedEndpointDTO createFailedEndpointDTO() {
         if (lookupError != null) {
             return createFailed(lookupError, FailedEndpointDTO.FAILURE_REASON_SERVICE_NOT_GETTABLE);
         }
@@ -0,0 +1,156 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.osgi.technology.webservices.registrar;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.osgi.framework.ServiceReference;
+import org.osgi.service.log.Logger;
+
+/**
+ * Collects change events of the registrar and applies them as one converged
+ * {@link ReconcilePlan} after a settle window has passed, this makes sure that
+ * a storm of bind/unbind events only refreshes each endpoint once.
+ */
+final class EndpointReconciler {
+
+    private final Logger logger;
+    private final long settleWindow;
+    private final Consumer<ReconcilePlan> applier;
+    private final ScheduledExecutorService executor;
+    private boolean refreshAll;
+    private Set<ServiceReference<?>> endpoints = new HashSet<>();
+    private List<HandlerChange> handlerChanges = new ArrayList<>();
+    private ScheduledFuture<?> scheduled;
+    private boolean closed;
+
+    EndpointReconciler(Logger logger, long settleWindow, Consumer<ReconcilePlan> applier) {
+        this.logger = logger;
+        this.settleWindow = Math.max(0, settleWindow);
+        this.applier = applier;
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "Webservice Endpoint Reconciler");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Marks the endpoint for the given implementor as dirty
+     *
+     * @param implementorReference the reference of the implementor
+     */
+    synchronized void endpointChanged(ServiceReference<?> implementorReference) {
+        endpoints.add(implementorReference);
+        schedule();
+    }
+
+    /**
+     * Records a handler change, the affected endpoints are computed when the plan
+     * is applied
+     *
+     * @param oldInfo the handler info that was replaced or removed, might be
+     *                <code>null</code>
+     * @param newInfo the handler info that was added, might be <code>null</code>
+     * @return <code>false</code> if the reconciler is already closed, the change
+     *         is not recorded then and the caller is responsible for disposing
+     *         the old info
+     */
+    synchronized boolean handlerChanged(HandlerInfo oldInfo, HandlerInfo newInfo) {
+        if (closed) {
+            return false;
+        }
+        handlerChanges.add(new HandlerChange(oldInfo, newInfo));
+        schedule();
+        return true;
+    }
+
+    /**
+     * Requests a new pass without marking anything dirty, for example because
+     * the state has changed in a way that does not require a refresh
+     */
+    synchronized void stateChanged() {
+        schedule();
+    }
+
+    /**
+     * Marks all endpoints as dirty
+     */
+    synchronized void allChanged() {
+        refreshAll = true;
+        schedule();
+    }
+
+    private void schedule() {
+        if (scheduled == null && !closed) {
+            scheduled = executor.schedule(this::reconcile, settleWindow, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void reconcile() {
+        ReconcilePlan plan;
+        synchronized (this) {
+            plan = new ReconcilePlan(refreshAll, endpoints, handlerChanges);
+            refreshAll = false;
+            endpoints = new HashSet<>();
+            handlerChanges = new ArrayList<>();
+            scheduled = null;
+        }
+        logger.debug("Apply {}", plan);
+        try {
+            applier.accept(plan);
+        } catch (RuntimeException e) {
+            logger.error("Applying {} failed", plan, e);
+        }
+    }
+
+    /**
+     * Stops the reconciliation, changes not applied yet are discarded
+     *
+     * @return the handler changes that were not applied
+     */
+    synchronized List<HandlerChange> close() {
+        closed = true;
+        executor.shutdownNow();
+        List<HandlerChange> pending = handlerChanges;
+        handlerChanges = new ArrayList<>();
+        return pending;
+    }
+
+    /**
+     * The converged set of changes collected during one settle window
+     */
+    record ReconcilePlan(boolean refreshAll, Set<ServiceReference<?>> endpoints, List<HandlerChange> handlerChanges) {
+
+        @Override
+        public String toString() {
+            return "ReconcilePlan [refreshAll=" + refreshAll + ", endpoints=" + endpoints.size() + ", handlerChanges="
+                    + handlerChanges.size() + "]";
+        }
+    }
+
+    /**
+     * A single handler change, at least one of the values is not
+     * <code>null</code>
+     */
+    record HandlerChange(HandlerInfo oldInfo, HandlerInfo newInfo) {
+    }
+}
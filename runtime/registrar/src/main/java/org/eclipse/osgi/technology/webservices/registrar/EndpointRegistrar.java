@@ -12,17 +12,28 @@
  *******************************************************************************/
 package org.eclipse.osgi.technology.webservices.registrar;
 
-import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Dictionary;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.WeakHashMap;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
+import org.eclipse.osgi.technology.webservices.registrar.EndpointReconciler.HandlerChange;
+import org.eclipse.osgi.technology.webservices.registrar.EndpointReconciler.ReconcilePlan;
+import org.eclipse.osgi.technology.webservices.runtime.PublishedEndpointDTO;
+import org.eclipse.osgi.technology.webservices.runtime.RuntimeChangeDTO;
+import org.eclipse.osgi.technology.webservices.runtime.RuntimeChangeFeed;
 import org.eclipse.osgi.technology.webservices.spi.EndpointPublisher;
+import org.eclipse.osgi.technology.webservices.spi.PublishedEndpoint;
 import org.osgi.annotation.bundle.Capability;
-import org.osgi.framework.Bundle;
 import org.osgi.framework.Constants;
 import org.osgi.framework.FrameworkUtil;
 import org.osgi.framework.ServiceReference;
@@ -34,11 +45,11 @@ import org.osgi.service.component.AnyService;
 import org.osgi.service.component.ComponentContext;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
 import org.osgi.service.component.annotations.Reference;
 import org.osgi.service.component.annotations.ReferenceCardinality;
 import org.osgi.service.component.annotations.ReferencePolicy;
 import org.osgi.service.component.annotations.ReferencePolicyOption;
-import org.osgi.service.component.propertytypes.ServiceRanking;
 import org.osgi.service.log.Logger;
 import org.osgi.service.log.LoggerFactory;
 import org.osgi.service.webservice.runtime.WebserviceServiceRuntime;
@@ -62,39 +73,85 @@ import jakarta.xml.ws.handler.MessageContext;
         version = WebserviceWhiteboardConstants.WEBSERVICE_SPECIFICATION_VERSION, uses = { Handler.class,
                 Endpoint.class })
 @Capability(namespace = ServiceNamespace.SERVICE_NAMESPACE, attribute = {ServiceNamespace.CAPABILITY_OBJECTCLASS_ATTRIBUTE
-        + ":List<String>=\"org.osgi.service.webservice.runtime.WebserviceServiceRuntime\"" }, uses = {
-                WebserviceServiceRuntime.class, RuntimeDTO.class })
-public class EndpointRegistrar implements WebserviceServiceRuntime {
+        + ":List<String>=\"org.osgi.service.webservice.runtime.WebserviceServiceRuntime,org.eclipse.osgi.technology.webservices.runtime.RuntimeChangeFeed\"" }, uses = {
+                WebserviceServiceRuntime.class, RuntimeDTO.class, RuntimeChangeFeed.class })
+public class EndpointRegistrar implements RuntimeChangeFeed {
 
     private Logger logger;
 
-    private Map<Bundle, BundleEndpointContext> contextMap = new WeakHashMap<>();
-    private Map<ServiceReference<?>, HandlerInfo> handlerMap = new ConcurrentHashMap<>();
+    private final BundleEndpointContextRegistry contextRegistry;
+    private final EndpointExecutors endpointExecutors;
+    private HandlerIndex handlerMap = new HandlerIndex();
     private Map<ServiceReference<?>, EndpointRegistration> endpointRegistrations = new ConcurrentHashMap<>();
-    private Map<EndpointPublisher, ServiceRanking> endpointPublisherMap = new ConcurrentHashMap<>();
+    private Map<EndpointPublisher, RankedPublisher> endpointPublisherMap = new HashMap<>();
+    private volatile EndpointPublisher[] rankedPublishers = new EndpointPublisher[0];
     private ComponentContext context;
     private final AtomicLong changeCount = new AtomicLong();
+    private volatile RuntimeSnapshot runtimeSnapshot;
+    private final RuntimeChangeTracker changeTracker;
+    private final EndpointReconciler reconciler;
+    private final PublishExecutor publishExecutor;
 
-    private ServiceRegistration<WebserviceServiceRuntime> registerService;
+    private ServiceRegistration<?> registerService;
 
     /**
      * contructor
      *
-     * @param logger  logger
-     * @param context context
+     * @param logger        logger
+     * @param context       context
+     * @param configuration configuration
      */
     @Activate
-    public EndpointRegistrar(@Reference(service = LoggerFactory.class) Logger logger, ComponentContext context) {
+    public EndpointRegistrar(@Reference(service = LoggerFactory.class) Logger logger, ComponentContext context,
+            RegistrarConfiguration configuration) {
         this.logger = logger;
         this.context = context;
+        this.contextRegistry = new BundleEndpointContextRegistry(context.getBundleContext());
+        this.endpointExecutors = new EndpointExecutors(logger, configuration.pinning_threshold());
+        this.publishExecutor = new PublishExecutor(logger, configuration.publish_parallelism(),
+                configuration.publish_virtual_threads());
+        this.reconciler = new EndpointReconciler(logger, configuration.settle_window(), this::reconcile);
+        this.changeTracker = new RuntimeChangeTracker(configuration.change_history());
         // WORKAROUND for https://github.com/osgi/osgi/issues/809
-        registerService = context.getBundleContext().registerService(WebserviceServiceRuntime.class, this,
-                getProperties());
+        registerService = context.getBundleContext().registerService(
+                new String[] { WebserviceServiceRuntime.class.getName(), RuntimeChangeFeed.class.getName() }, this,
+                getProperties(changeCount.get()));
+        runtimeSnapshot = buildRuntimeSnapshot(changeCount.get());
+        changeTracker.add(changeCount.get(), runtimeSnapshot.runtimeDTO());
+    }
 
+    /**
+     * stops the reconciliation of endpoints
+     */
+    @Deactivate
+    public void deactivate() {
+        reconciler.close().stream().map(HandlerChange::oldInfo).filter(Objects::nonNull)
+                .forEach(HandlerInfo::dispose);
+        publishExecutor.close();
+        contextRegistry.close();
+        endpointExecutors.close();
     }
 
-    private Dictionary<String, Long> getProperties() {
-        return FrameworkUtil.asDictionary(Map.of(Constants.SERVICE_CHANGECOUNT, changeCount.getAndIncrement()));
+    private static Dictionary<String, Long> getProperties(long count) {
+        return FrameworkUtil.asDictionary(Map.of(Constants.SERVICE_CHANGECOUNT, count));
+    }
+
+    /**
+     * Called whenever the state of the registrar has changed, this builds a new
+     * immutable snapshot tagged with the next change count and then updates the
+     * service properties, so once a consumer sees the new change count the
+     * snapshot is already in place. Consumers of the change feed are notified
+     * after the snapshot was swapped.
+     */
+    private synchronized void stateChanged() {
+        long count = changeCount.incrementAndGet();
+        runtimeSnapshot = buildRuntimeSnapshot(count);
+        changeTracker.add(count, runtimeSnapshot.runtimeDTO());
+        try {
+            registerService.setProperties(getProperties(count));
+        } catch (IllegalStateException e) {
+            // already unregistered...
+        }
     }
 
     /**
@@ -105,26 +162,14 @@ public class EndpointRegistrar implements WebserviceServiceRuntime {
      */
     @Reference(cardinality = ReferenceCardinality.AT_LEAST_ONE, policy = ReferencePolicy.DYNAMIC)
     public void addEndpointPublisher(EndpointPublisher publisher, Map<String, ?> properties) {
-        ServiceRanking ranking = new ServiceRanking() {
-
-            @Override
-            public Class<? extends Annotation> annotationType() {
-                return ServiceRanking.class;
-            }
-
-            @Override
-            public int value() {
-                Object object = properties.get(Constants.SERVICE_RANKING);
-                if (object instanceof Integer) {
-                    return ((Integer) object).intValue();
-                }
-                return 0;
-            }
-        };
+        int ranking = properties.get(Constants.SERVICE_RANKING) instanceof Integer value ? value.intValue() : 0;
+        long serviceId = properties.get(Constants.SERVICE_ID) instanceof Long value ? value.longValue() : 0;
         logger.debug("BINDING publisher={} with ranking={}", publisher, ranking);
-        endpointPublisherMap.put(publisher, ranking);
-        updateAll();
-        registerService.setProperties(getProperties());
+        synchronized (endpointPublisherMap) {
+            endpointPublisherMap.put(publisher, new RankedPublisher(publisher, ranking, serviceId));
+            updateRankedPublishers();
+        }
+        reconciler.allChanged();
     }
 
     /**
@@ -133,10 +178,23 @@ public class EndpointRegistrar implements WebserviceServiceRuntime {
      * @param publisher publisher
      */
     public void removeEndpointPublisher(EndpointPublisher publisher) {
-        ServiceRanking ranking = endpointPublisherMap.remove(publisher);
-        logger.debug("UNBINDING publisher={} with ranking={}", publisher, ranking);
-        updateAll();
-        registerService.setProperties(getProperties());
+        RankedPublisher ranked;
+        synchronized (endpointPublisherMap) {
+            ranked = endpointPublisherMap.remove(publisher);
+            updateRankedPublishers();
+        }
+        logger.debug("UNBINDING publisher={} with ranking={}", publisher, ranked == null ? null : ranked.ranking());
+        reconciler.allChanged();
+    }
+
+    /**
+     * Rebuilds the immutable array of publishers ordered by their ranking (highest
+     * first) and service id (lowest first), this is used for publisher selection
+     * so nothing needs to be sorted when an endpoint is published.
+     */
+    private void updateRankedPublishers() {
+        rankedPublishers = endpointPublisherMap.values().stream().sorted(RankedPublisher.SORT_BY_RANKING)
+                .map(RankedPublisher::publisher).toArray(EndpointPublisher[]::new);
     }
 
     /**
@@ -153,8 +211,7 @@ public class EndpointRegistrar implements WebserviceServiceRuntime {
         if (replaced != null) {
             replaced.dispose();
         }
-        registration.refresh();
-        registerService.setProperties(getProperties());
+        reconciler.endpointChanged(endpointImplementorReference);
     }
 
     /**
@@ -167,7 +224,14 @@ public class EndpointRegistrar implements WebserviceServiceRuntime {
         EndpointRegistration registration = endpointRegistrations.remove(endpointImplementorReference);
         if (registration != null) {
             registration.dispose();
-            registerService.setProperties(getProperties());
+            reconciler.stateChanged();
+            // the endpoint might have owned an address others failed to publish
+            // at, those are retried now
+            endpointRegistrations.forEach((reference, other) -> {
+                if (other.isPublishFailed()) {
+                    reconciler.endpointChanged(reference);
+                }
+            });
         }
     }
 
@@ -180,12 +244,13 @@ public class EndpointRegistrar implements WebserviceServiceRuntime {
             + WebserviceWhiteboardConstants.WEBSERVICE_HANDLER_EXTENSION + "=true)")
     public void addHandler(ServiceReference<Handler<? extends MessageContext>> handler) {
         logger.debug("ADD handler={}", handler);
-        HandlerInfo info = handlerMap.put(handler, new HandlerInfo(handler, context.getBundleContext()));
-        if (info != null) {
-            info.dispose();
+        HandlerInfo info = new HandlerInfo(handler, context.getBundleContext());
+        // the replaced info is disposed once the reconciler has removed it from
+        // all chains
+        HandlerInfo replaced = handlerMap.put(handler, info);
+        if (!reconciler.handlerChanged(replaced, info) && replaced != null) {
+            replaced.dispose();
         }
-        updateAll();
-        registerService.setProperties(getProperties());
     }
 
     /**
@@ -195,12 +260,13 @@ public class EndpointRegistrar implements WebserviceServiceRuntime {
      */
     public void updateHandler(ServiceReference<Handler<? extends MessageContext>> handler) {
         logger.debug("UPDATE handler={}", handler);
-        HandlerInfo info = handlerMap.put(handler, new HandlerInfo(handler, context.getBundleContext()));
-        if (info != null) {
-            info.dispose();
+        HandlerInfo info = new HandlerInfo(handler, context.getBundleContext());
+        // the replaced info is disposed once the reconciler has removed it from
+        // all chains
+        HandlerInfo replaced = handlerMap.put(handler, info);
+        if (!reconciler.handlerChanged(replaced, info) && replaced != null) {
+            replaced.dispose();
         }
-        updateAll();
-        registerService.setProperties(getProperties());
     }
 
     /**
@@ -212,15 +278,42 @@ public class EndpointRegistrar implements WebserviceServiceRuntime {
         logger.debug("REMOVE handler={}", handler);
         HandlerInfo info = handlerMap.remove(handler);
         if (info != null) {
-            info.dispose();
-            updateAll();
-            registerService.setProperties(getProperties());
+            // live endpoints still use the handler until the reconciler has
+            // refreshed them, so it is disposed afterwards, SCR might call this
+            // after deactivate, then there is nothing left to refresh
+            if (!reconciler.handlerChanged(info, null)) {
+                info.dispose();
+            }
         }
     }
 
-    private void updateAll() {
-        logger.debug("Update all handlers...");
-        endpointRegistrations.values().stream().forEach(EndpointRegistration::refresh);
+    /**
+     * Applies a converged plan, each endpoint is refreshed at most once, either
+     * because it was changed itself, all endpoints are dirty or a handler change
+     * affects it, that is the previous handler was part of its chain (this also
+     * covers a change in ranking) or the new handler now matches. Refreshes of
+     * different endpoints run in parallel, the pass completes before the next
+     * one starts so operations on the same implementor stay strictly ordered. A
+     * handler change always republishes the endpoint, the JAX-WS RI copies the
+     * handler chain when the endpoint is published so replacing the chain of a
+     * live endpoint would not affect its requests. Handlers that were replaced or
+     * removed are disposed only after all endpoints have been refreshed, so no
+     * endpoint uses a handler that was already released.
+     *
+     * @param plan the plan to apply
+     */
+    private void reconcile(ReconcilePlan plan) {
+        List<Runnable> refreshes = new ArrayList<>();
+        endpointRegistrations.forEach((reference, registration) -> {
+            if (plan.refreshAll() || plan.endpoints().contains(reference) || plan.handlerChanges().stream()
+                    .anyMatch(change -> registration.isAffectedBy(change.oldInfo(), change.newInfo()))) {
+                refreshes.add(registration::refresh);
+            }
+        });
+        publishExecutor.runAll(refreshes);
+        plan.handlerChanges().stream().map(HandlerChange::oldInfo).filter(Objects::nonNull)
+                .forEach(HandlerInfo::dispose);
+        stateChanged();
     }
 
     private final class EndpointRegistration {
@@ -231,12 +324,33 @@ public class EndpointRegistrar implements WebserviceServiceRuntime {
             endpointInfo = new EndpointInfo(implementorReference, context.getBundleContext());
         }
 
+        /**
+         * Refreshes the endpoint in a make-before-break manner, the new endpoint
+         * is published before the previous one is disposed so publishers are able
+         * to hand over without the endpoint becoming unavailable.
+         */
         synchronized void refresh() {
             if (endpointInfo == null) {
                 return;
             }
-            endpointInfo = new EndpointInfo(endpointInfo.dispose(), context.getBundleContext());
-            endpointInfo.publishEndpoint(handlerMap, contextMap, endpointPublisherMap);
+            EndpointInfo previous = endpointInfo;
+            endpointInfo = new EndpointInfo(previous.getReference(), context.getBundleContext());
+            endpointInfo.publishEndpoint(handlerMap, contextRegistry, endpointExecutors, rankedPublishers, reconciler::stateChanged);
+            previous.dispose();
+        }
+
+        synchronized boolean isAffectedBy(HandlerInfo oldInfo, HandlerInfo newInfo) {
+            if (endpointInfo == null) {
+                return false;
+            }
+            if (oldInfo != null && endpointInfo.isBoundTo(oldInfo)) {
+                return true;
+            }
+            return newInfo != null && newInfo.matches(endpointInfo.getReference());
+        }
+
+        synchronized boolean isPublishFailed() {
+            return endpointInfo != null && endpointInfo.isPublishFailed();
         }
 
         synchronized void dispose() {
@@ -246,12 +360,83 @@ public class EndpointRegistrar implements WebserviceServiceRuntime {
 
     }
 
+    private static record RankedPublisher(EndpointPublisher publisher, int ranking, long serviceId) {
+
+        static final Comparator<RankedPublisher> SORT_BY_RANKING = Comparator.comparingInt(RankedPublisher::ranking)
+                .reversed().thenComparingLong(RankedPublisher::serviceId);
+    }
+
     @Override
     public RuntimeDTO getRuntimeDTO() {
+        // the snapshot is shared and must not be modified by callers
+        RuntimeSnapshot snapshot = runtimeSnapshot;
+        if (snapshot.statistics().isEmpty()) {
+            return snapshot.runtimeDTO();
+        }
+        // statistics change with every request without a new snapshot, so the
+        // endpoints reporting them are copied with the current values
+        RuntimeDTO shared = snapshot.runtimeDTO();
         RuntimeDTO runtimeDTO = new RuntimeDTO();
-        runtimeDTO.endpoints = endpointRegistrations.values().stream().map(reg -> reg.endpointInfo)
-                .filter(Objects::nonNull).map(epi -> epi.getEndpointDTO()).filter(Objects::nonNull)
+        runtimeDTO.serviceReference = shared.serviceReference;
+        runtimeDTO.endpoints = Arrays.stream(shared.endpoints)
+                .map(endpoint -> withCurrentStatistics(endpoint, snapshot.statistics().get(endpoint)))
                 .toArray(EndpointDTO[]::new);
+        runtimeDTO.failedEndpoints = shared.failedEndpoints;
+        runtimeDTO.handlers = shared.handlers;
+        runtimeDTO.failedHandlers = shared.failedHandlers;
+        return runtimeDTO;
+    }
+
+    private static EndpointDTO withCurrentStatistics(EndpointDTO endpoint, PublishedEndpoint publishedEndpoint) {
+        if (publishedEndpoint == null) {
+            return endpoint;
+        }
+        PublishedEndpointDTO dto = new PublishedEndpointDTO();
+        dto.implementor = endpoint.implementor;
+        dto.address = endpoint.address;
+        dto.handlers = endpoint.handlers;
+        dto.statistics = Map.copyOf(publishedEndpoint.getStatistics());
+        return dto;
+    }
+
+    @Override
+    public long getChangeCount() {
+        return changeTracker.getChangeCount();
+    }
+
+    @Override
+    public RuntimeChangeDTO getChangesSince(long changeCount) {
+        return changeTracker.getChangesSince(changeCount);
+    }
+
+    @Override
+    public CompletionStage<RuntimeChangeDTO> onChange(long changeCount) {
+        return changeTracker.onChange(changeCount);
+    }
+
+    @Override
+    public RuntimeChangeDTO awaitChange(long changeCount, long timeout, TimeUnit unit) throws InterruptedException {
+        return changeTracker.awaitChange(changeCount, timeout, unit);
+    }
+
+    private RuntimeSnapshot buildRuntimeSnapshot(long count) {
+        RuntimeDTO runtimeDTO = new RuntimeDTO();
+        List<EndpointDTO> endpoints = new ArrayList<>();
+        Map<EndpointDTO, PublishedEndpoint> statistics = new IdentityHashMap<>();
+        for (EndpointRegistration registration : endpointRegistrations.values()) {
+            EndpointInfo info = registration.endpointInfo;
+            EndpointDTO endpoint = info == null ? null : info.getEndpointDTO();
+            if (endpoint == null) {
+                continue;
+            }
+            endpoints.add(endpoint);
+            PublishedEndpoint publishedEndpoint = info.getPublishedEndpoint();
+            if (publishedEndpoint != null && endpoint instanceof PublishedEndpointDTO published
+                    && !published.statistics.isEmpty()) {
+                statistics.put(endpoint, publishedEndpoint);
+            }
+        }
+        runtimeDTO.endpoints = endpoints.toArray(EndpointDTO[]::new);
         runtimeDTO.failedEndpoints = endpointRegistrations.values().stream().map(reg -> reg.endpointInfo)
                 .filter(Objects::nonNull).map(epi -> epi.getFailedEndpointDTO()).filter(Objects::nonNull)
                 .toArray(FailedEndpointDTO[]::new);
@@ -260,7 +445,19 @@ public class EndpointRegistrar implements WebserviceServiceRuntime {
         runtimeDTO.failedHandlers = handlerMap.values().stream().map(hi -> hi.getFailedDto()).filter(Objects::nonNull)
                 .toArray(FailedHandlerDTO[]::new);
         runtimeDTO.serviceReference = registerService.getReference().adapt(ServiceReferenceDTO.class);
-        return runtimeDTO;
+        if (runtimeDTO.serviceReference != null) {
+            // the service properties are updated after the snapshot is in place
+            runtimeDTO.serviceReference.properties = new HashMap<>(runtimeDTO.serviceReference.properties);
+            runtimeDTO.serviceReference.properties.put(Constants.SERVICE_CHANGECOUNT, count);
+        }
+        return new RuntimeSnapshot(runtimeDTO, statistics);
+    }
+
+    /**
+     * The immutable {@link RuntimeDTO} of a change count together with the
+     * published endpoints whose statistics are reported by its endpoint DTOs
+     */
+    private static record RuntimeSnapshot(RuntimeDTO runtimeDTO, Map<EndpointDTO, PublishedEndpoint> statistics) {
     }
 
 }
@@ -0,0 +1,201 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.osgi.technology.webservices.registrar;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.osgi.framework.Filter;
+import org.osgi.framework.ServiceReference;
+
+/**
+ * Holds all known {@link HandlerInfo}s and maintains an index over the
+ * equality terms of their filters, this allows to find the candidate handlers
+ * for an endpoint by a property lookup instead of evaluating every filter. Only
+ * the candidates need to be matched against the full filter.
+ */
+final class HandlerIndex {
+
+    private final Map<ServiceReference<?>, HandlerInfo> handlers = new ConcurrentHashMap<>();
+    private volatile Snapshot snapshot = new Snapshot(Map.of(), List.of());
+
+    synchronized HandlerInfo put(ServiceReference<?> reference, HandlerInfo info) {
+        HandlerInfo replaced = handlers.put(reference, info);
+        snapshot = buildSnapshot();
+        return replaced;
+    }
+
+    synchronized HandlerInfo remove(ServiceReference<?> reference) {
+        HandlerInfo removed = handlers.remove(reference);
+        if (removed != null) {
+            snapshot = buildSnapshot();
+        }
+        return removed;
+    }
+
+    Collection<HandlerInfo> values() {
+        return handlers.values();
+    }
+
+    /**
+     * Returns the handlers that might match the given implementor, the result
+     * is a superset of the matching handlers
+     *
+     * @param implementor the implementor reference
+     * @return the candidate handlers
+     */
+    Collection<HandlerInfo> candidates(ServiceReference<?> implementor) {
+        Snapshot current = snapshot;
+        if (current.indexed().isEmpty()) {
+            return current.unindexed();
+        }
+        Set<HandlerInfo> result = new LinkedHashSet<>(current.unindexed());
+        current.indexed().forEach((key, byValue) -> {
+            Object value = implementor.getProperty(key);
+            if (value instanceof String string) {
+                addAll(result, byValue.get(string));
+            } else if (value instanceof Collection<?> collection) {
+                for (Object element : collection) {
+                    if (!addCandidates(result, byValue, element)) {
+                        break;
+                    }
+                }
+            } else if (value != null && value.getClass().isArray()) {
+                int length = Array.getLength(value);
+                for (int i = 0; i < length; i++) {
+                    if (!addCandidates(result, byValue, Array.get(value, i))) {
+                        break;
+                    }
+                }
+            } else if (value != null) {
+                // other types are compared by the filter with type conversion, so all are
+                // candidates here
+                byValue.values().forEach(list -> result.addAll(list));
+            }
+        });
+        return result;
+    }
+
+    private static boolean addCandidates(Set<HandlerInfo> result, Map<String, List<HandlerInfo>> byValue,
+            Object element) {
+        if (element instanceof String string) {
+            addAll(result, byValue.get(string));
+            return true;
+        }
+        byValue.values().forEach(list -> result.addAll(list));
+        return false;
+    }
+
+    private static void addAll(Set<HandlerInfo> result, List<HandlerInfo> list) {
+        if (list != null) {
+            result.addAll(list);
+        }
+    }
+
+    private Snapshot buildSnapshot() {
+        Map<String, Map<String, List<HandlerInfo>>> indexed = new HashMap<>();
+        List<HandlerInfo> unindexed = new ArrayList<>();
+        for (HandlerInfo info : handlers.values()) {
+            if (info.hasFilterError()) {
+                // never matches anything
+                continue;
+            }
+            Filter filter = info.getFilter();
+            String[] term = filter == null ? null : indexTerm(filter.toString());
+            if (term == null) {
+                unindexed.add(info);
+            } else {
+                indexed.computeIfAbsent(term[0], k -> new HashMap<>()).computeIfAbsent(term[1], v -> new ArrayList<>())
+                        .add(info);
+            }
+        }
+        return new Snapshot(indexed, unindexed);
+    }
+
+    /**
+     * Extracts an equality term from the filter that is required for the filter
+     * to match, that is either the filter itself or one of the top level
+     * operands of an and-filter
+     *
+     * @param filter the filter string
+     * @return an array of the (lower case) key and the value or
+     *         <code>null</code> if there is no such term
+     */
+    static String[] indexTerm(String filter) {
+        if (filter.length() < 2 || filter.charAt(0) != '(' || filter.charAt(filter.length() - 1) != ')') {
+            return null;
+        }
+        if (filter.charAt(1) != '&') {
+            return equalityTerm(filter);
+        }
+        int depth = 0;
+        int start = -1;
+        for (int i = 2; i < filter.length() - 1; i++) {
+            char c = filter.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == '(') {
+                if (depth++ == 0) {
+                    start = i;
+                }
+            } else if (c == ')' && --depth == 0) {
+                String[] term = equalityTerm(filter.substring(start, i + 1));
+                if (term != null) {
+                    return term;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static String[] equalityTerm(String item) {
+        String inner = item.substring(1, item.length() - 1);
+        if (inner.isEmpty() || "&|!".indexOf(inner.charAt(0)) >= 0) {
+            return null;
+        }
+        int eq = inner.indexOf('=');
+        if (eq < 1 || "~<>".indexOf(inner.charAt(eq - 1)) >= 0) {
+            return null;
+        }
+        String key = inner.substring(0, eq).trim();
+        StringBuilder value = new StringBuilder();
+        for (int i = eq + 1; i < inner.length(); i++) {
+            char c = inner.charAt(i);
+            if (c == '*') {
+                // substring or presence
+                return null;
+            }
+            if (c == '\\' && i + 1 < inner.length()) {
+                c = inner.charAt(++i);
+            }
+            value.append(c);
+        }
+        String v = value.toString();
+        if (key.isEmpty() || v.isEmpty() || !v.equals(v.strip())) {
+            return null;
+        }
+        return new String[] { key.toLowerCase(Locale.ROOT), v };
+    }
+
+    private static record Snapshot(Map<String, Map<String, List<HandlerInfo>>> indexed,
+            List<HandlerInfo> unindexed) {
+    }
+}
@@ -17,6 +17,7 @@ import java.util.Objects;
 
 import org.osgi.framework.BundleContext;
 import org.osgi.framework.Constants;
+import org.osgi.framework.Filter;
 import org.osgi.framework.FrameworkUtil;
 import org.osgi.framework.InvalidSyntaxException;
 import org.osgi.framework.ServiceReference;
@@ -37,8 +38,12 @@ final class HandlerInfo {
     private BundleContext bundleContext;
     private Handler<? extends MessageContext> service;
     private Exception lookupError;
-    private Exception filterError;
+    private final Exception filterError;
+    private final Filter filter;
     private long serviceId;
+    private boolean dtoValid;
+    private HandlerDTO dto;
+    private FailedHandlerDTO failedDto;
 
     HandlerInfo(ServiceReference<Handler<? extends MessageContext>> reference, BundleContext bundleContext) {
         this.reference = reference;
@@ -50,29 +55,43 @@ final class HandlerInfo {
             this.serviceRank = p.intValue();
         }
         serviceId = (Long) reference.getProperty(Constants.SERVICE_ID);
-    }
-
-    synchronized boolean matches(ServiceReference<?> endpointImplementor) {
+        Filter compiled = null;
+        Exception error = null;
         Object epSelect = reference.getProperty(WebserviceWhiteboardConstants.WEBSERVICE_HANDLER_FILTER);
-        if (epSelect == null) {
-            // if there is no selector this handler matches everywhere
-            return true;
-        }
         if (epSelect instanceof String fs) {
-            if (fs.isBlank()) {
-                // empty means all matching
-                return true;
-            }
-            try {
-                return FrameworkUtil.createFilter(fs).match(endpointImplementor);
-            } catch (InvalidSyntaxException | RuntimeException e) {
-                filterError = e;
+            // a blank filter means all matching
+            if (!fs.isBlank()) {
+                try {
+                    compiled = FrameworkUtil.createFilter(fs);
+                } catch (InvalidSyntaxException | RuntimeException e) {
+                    error = e;
+                }
             }
-        } else {
-            filterError = new IllegalArgumentException(
+        } else if (epSelect != null) {
+            error = new IllegalArgumentException(
                     WebserviceWhiteboardConstants.WEBSERVICE_HANDLER_FILTER + " must be of type string");
         }
-        return false;
+        this.filter = compiled;
+        this.filterError = error;
+    }
+
+    boolean matches(ServiceReference<?> endpointImplementor) {
+        if (filterError != null) {
+            return false;
+        }
+        if (filter == null) {
+            // if there is no selector this handler matches everywhere
+            return true;
+        }
+        return filter.match(endpointImplementor);
+    }
+
+    Filter getFilter() {
+        return filter;
+    }
+
+    boolean hasFilterError() {
+        return filterError != null;
     }
 
     public int getServiceRank() {
@@ -93,12 +112,13 @@ final class HandlerInfo {
         } finally {
             service = null;
             lookupError = null;
-            filterError = null;
+            dtoValid = false;
         }
     }
 
     synchronized Handler<? extends MessageContext> fetchHandler() {
         if (service == null) {
+            dtoValid = false;
             try {
                 service = Objects.requireNonNull(bundleContext.getService(reference));
             } catch (RuntimeException e) {
@@ -108,7 +128,29 @@ final class HandlerInfo {
         return service;
     }
 
+    /**
+     * The DTOs are cached until the state of this handler changes, so unchanged
+     * handlers return the same instances
+     */
+    private void validateDTOs() {
+        if (!dtoValid) {
+            dto = createDto();
+            failedDto = createFailedDto();
+            dtoValid = true;
+        }
+    }
+
     synchronized HandlerDTO getDto() {
+        validateDTOs();
+        return dto;
+    }
+
+    synchronized FailedHandlerDTO getFailedDto() {
+        validateDTOs();
+        return failedDto;
+    }
+
+    private HandlerDTO createDto() {
         if (service == null || lookupError != null || filterError != null) {
             // if the service is null this means the handler is never fetched and therefore
             // unbound, or the fetching has failed or this instance was disposed!
@@ -119,7 +161,7 @@ final class HandlerInfo {
         return dto;
     }
 
-    synchronized FailedHandlerDTO getFailedDto() {
+    private FailedHandlerDTO createFailedDto() {
         if (filterError != null) {
             FailedHandlerDTO dto = new FailedHandlerDTO();
             dto.failureCode = FailedHandlerDTO.FAILURE_REASON_INVALID_FILTER;
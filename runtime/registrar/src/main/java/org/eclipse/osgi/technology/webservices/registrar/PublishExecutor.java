@@ -0,0 +1,117 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.osgi.technology.webservices.registrar;
+
+import java.util.Collection;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.osgi.service.log.Logger;
+
+/**
+ * Runs the creation and publishing of endpoints with a bounded parallelism
+ * either on a pool of platform threads or on virtual threads if requested and
+ * supported by the running VM. Ordering for a single implementor is guaranteed
+ * by the caller that never passes more than one task per implementor to
+ * {@link #runAll(Collection)} and waits for its completion.
+ */
+final class PublishExecutor {
+
+    private final Logger logger;
+    private final int parallelism;
+    private final ExecutorService executor;
+
+    PublishExecutor(Logger logger, int parallelism, boolean virtualThreads) {
+        this.logger = logger;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        if (this.parallelism == 1) {
+            executor = null;
+        } else if (virtualThreads) {
+            executor = newVirtualThreadExecutor();
+        } else {
+            executor = newPlatformExecutor(this.parallelism);
+        }
+    }
+
+    private ExecutorService newVirtualThreadExecutor() {
+        ExecutorService virtualExecutor = EndpointExecutors.newVirtualThreadExecutor();
+        if (virtualExecutor == null) {
+            logger.warn("Virtual threads are not supported by this VM, using platform threads instead");
+            return newPlatformExecutor(parallelism);
+        }
+        return virtualExecutor;
+    }
+
+    private static ExecutorService newPlatformExecutor(int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "Webservice Endpoint Publisher " + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Runs all given tasks and waits until they are completed
+     *
+     * @param tasks the tasks to run
+     */
+    void runAll(Collection<Runnable> tasks) {
+        if (executor == null || tasks.size() < 2) {
+            tasks.forEach(this::runSafe);
+            return;
+        }
+        Semaphore permits = new Semaphore(parallelism);
+        CountDownLatch latch = new CountDownLatch(tasks.size());
+        try {
+            for (Runnable task : tasks) {
+                permits.acquire();
+                try {
+                    executor.execute(() -> {
+                        try {
+                            runSafe(task);
+                        } finally {
+                            permits.release();
+                            latch.countDown();
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    // we are shutting down...
+                    permits.release();
+                    latch.countDown();
+                }
+            }
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runSafe(Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            logger.error("Publishing task failed", e);
+        }
+    }
+
+    void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.osgi.technology.webservices.registrar;
+
+/**
+ * Configuration of the {@link EndpointRegistrar}
+ */
+@interface RegistrarConfiguration {
+
+    /**
+     * @return the time in milliseconds changes are collected before they are
+     *         applied to the endpoints
+     */
+    long settle_window() default 50;
+
+    /**
+     * @return the maximum number of endpoints that are created and published in
+     *         parallel, a value smaller than one means the number of available
+     *         processors
+     */
+    int publish_parallelism() default 0;
+
+    /**
+     * @return <code>true</code> if endpoints should be created and published on
+     *         virtual threads (if supported by the VM) instead of a pool of
+     *         platform threads
+     */
+    boolean publish_virtual_threads() default false;
+
+    /**
+     * @return the number of runtime states kept to compute changes for consumers
+     *         of the change feed, older states are answered with the full state
+     */
+    int change_history() default 64;
+
+    /**
+     * @return the minimum time in milliseconds a virtual thread of an endpoint
+     *         must pin its carrier thread to be reported, a value smaller than
+     *         zero disables the diagnostics
+     */
+    long pinning_threshold() default 20;
+}
@@ -0,0 +1,164 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.osgi.technology.webservices.registrar;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.IntFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+
+import org.eclipse.osgi.technology.webservices.runtime.RuntimeChangeDTO;
+import org.osgi.framework.dto.ServiceReferenceDTO;
+import org.osgi.service.webservice.runtime.dto.EndpointDTO;
+import org.osgi.service.webservice.runtime.dto.FailedEndpointDTO;
+import org.osgi.service.webservice.runtime.dto.FailedHandlerDTO;
+import org.osgi.service.webservice.runtime.dto.HandlerDTO;
+import org.osgi.service.webservice.runtime.dto.RuntimeDTO;
+
+/**
+ * Keeps a bounded history of {@link RuntimeDTO} snapshots and computes the
+ * changes between them. As unchanged endpoints and handlers keep their DTO
+ * instance across snapshots, entries are compared by identity.
+ */
+final class RuntimeChangeTracker {
+
+    private final int historySize;
+    private volatile List<Snapshot> history = List.of();
+    private volatile CompletableFuture<Snapshot> next = new CompletableFuture<>();
+
+    RuntimeChangeTracker(int historySize) {
+        this.historySize = Math.max(1, historySize);
+    }
+
+    /**
+     * Records a new snapshot and notifies everyone waiting for a change, must only
+     * be called by one thread at a time with increasing change counts
+     *
+     * @param changeCount the change count of the snapshot
+     * @param runtimeDTO  the snapshot
+     */
+    void add(long changeCount, RuntimeDTO runtimeDTO) {
+        Snapshot snapshot = new Snapshot(changeCount, runtimeDTO);
+        List<Snapshot> list = new ArrayList<>(history);
+        list.add(snapshot);
+        if (list.size() > historySize) {
+            list.subList(0, list.size() - historySize).clear();
+        }
+        history = List.copyOf(list);
+        CompletableFuture<Snapshot> waiting = next;
+        next = new CompletableFuture<>();
+        waiting.complete(snapshot);
+    }
+
+    long getChangeCount() {
+        List<Snapshot> list = history;
+        return list.isEmpty() ? -1 : list.get(list.size() - 1).changeCount();
+    }
+
+    RuntimeChangeDTO getChangesSince(long changeCount) {
+        List<Snapshot> list = history;
+        if (list.isEmpty()) {
+            return null;
+        }
+        Snapshot current = list.get(list.size() - 1);
+        for (Snapshot snapshot : list) {
+            if (snapshot.changeCount() == changeCount) {
+                return diff(snapshot, current);
+            }
+        }
+        return diff(null, current);
+    }
+
+    CompletionStage<RuntimeChangeDTO> onChange(long changeCount) {
+        // fetch the future before the check so a concurrent change can't be missed
+        CompletableFuture<Snapshot> waiting = next;
+        if (getChangeCount() > changeCount) {
+            return CompletableFuture.supplyAsync(() -> getChangesSince(changeCount));
+        }
+        return waiting.thenApplyAsync(snapshot -> getChangesSince(changeCount));
+    }
+
+    RuntimeChangeDTO awaitChange(long changeCount, long timeout, TimeUnit unit) throws InterruptedException {
+        CompletableFuture<Snapshot> waiting = next;
+        if (getChangeCount() <= changeCount) {
+            try {
+                waiting.get(timeout, unit);
+            } catch (TimeoutException e) {
+                return null;
+            } catch (ExecutionException e) {
+                // never completed exceptionally
+            }
+        }
+        return getChangesSince(changeCount);
+    }
+
+    private static RuntimeChangeDTO diff(Snapshot from, Snapshot to) {
+        RuntimeChangeDTO changes = new RuntimeChangeDTO();
+        changes.changeCount = to.changeCount();
+        changes.full = from == null;
+        changes.fromChangeCount = from == null ? -1 : from.changeCount();
+        RuntimeDTO old = from == null ? new RuntimeDTO() : from.runtimeDTO();
+        RuntimeDTO current = to.runtimeDTO();
+        changes.endpoints = changed(old.endpoints, current.endpoints, e -> id(e.implementor), EndpointDTO[]::new);
+        changes.removedEndpoints = removed(old.endpoints, current.endpoints, e -> id(e.implementor));
+        changes.failedEndpoints = changed(old.failedEndpoints, current.failedEndpoints, e -> id(e.implementor),
+                FailedEndpointDTO[]::new);
+        changes.removedFailedEndpoints = removed(old.failedEndpoints, current.failedEndpoints,
+                e -> id(e.implementor));
+        changes.handlers = changed(old.handlers, current.handlers, h -> id(h.serviceReference),
+                HandlerDTO[]::new);
+        changes.removedHandlers = removed(old.handlers, current.handlers, h -> id(h.serviceReference));
+        changes.failedHandlers = changed(old.failedHandlers, current.failedHandlers, h -> id(h.serviceReference),
+                FailedHandlerDTO[]::new);
+        changes.removedFailedHandlers = removed(old.failedHandlers, current.failedHandlers,
+                h -> id(h.serviceReference));
+        return changes;
+    }
+
+    private static <T> T[] changed(T[] old, T[] current, ToLongFunction<T> id, IntFunction<T[]> generator) {
+        Map<Long, T> oldById = index(old, id);
+        return stream(current).filter(dto -> oldById.get(id.applyAsLong(dto)) != dto).toArray(generator);
+    }
+
+    private static <T> long[] removed(T[] old, T[] current, ToLongFunction<T> id) {
+        Map<Long, T> currentById = index(current, id);
+        return stream(old).mapToLong(id).filter(key -> !currentById.containsKey(key)).toArray();
+    }
+
+    private static <T> Map<Long, T> index(T[] array, ToLongFunction<T> id) {
+        Map<Long, T> map = new HashMap<>();
+        stream(array).forEach(dto -> map.put(id.applyAsLong(dto), dto));
+        return map;
+    }
+
+    private static long id(ServiceReferenceDTO reference) {
+        // the reference might already be gone when the DTO was created
+        return reference == null ? -1 : reference.id;
+    }
+
+    private static <T> Stream<T> stream(T[] array) {
+        return array == null ? Stream.empty() : Arrays.stream(array);
+    }
+
+    private static record Snapshot(long changeCount, RuntimeDTO runtimeDTO) {
+    }
+}
@@ -0,0 +1,31 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.osgi.technology.webservices.runtime;
+
+import java.util.Map;
+
+import org.osgi.service.webservice.runtime.dto.EndpointDTO;
+
+/**
+ * An {@link EndpointDTO} that in addition carries the statistics reported by
+ * the publisher of the endpoint
+ */
+public class PublishedEndpointDTO extends EndpointDTO {
+
+    /**
+     * The statistics of the endpoint, for example the number of requests in
+     * flight or rejected. This is a copy of the values at the time the DTO was
+     * obtained, the map may be empty.
+     */
+    public Map<String, Long> statistics;
+}
@@ -0,0 +1,88 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.osgi.technology.webservices.runtime;
+
+import org.osgi.dto.DTO;
+import org.osgi.service.webservice.runtime.dto.EndpointDTO;
+import org.osgi.service.webservice.runtime.dto.FailedEndpointDTO;
+import org.osgi.service.webservice.runtime.dto.FailedHandlerDTO;
+import org.osgi.service.webservice.runtime.dto.HandlerDTO;
+
+/**
+ * Describes the changes of a runtime between two states. Endpoints are
+ * identified by the service id of their implementor, handlers by their service
+ * id.
+ */
+public class RuntimeChangeDTO extends DTO {
+
+    /**
+     * The change count of the state the changes are computed from
+     */
+    public long fromChangeCount;
+
+    /**
+     * The change count of the state the changes lead to
+     */
+    public long changeCount;
+
+    /**
+     * <code>true</code> if the state the changes should be computed from is no
+     * longer known, in this case the changes contain the full current state and
+     * consumers must discard anything they know.
+     */
+    public boolean full;
+
+    /**
+     * Endpoints that are added or changed, the array may be empty.
+     */
+    public EndpointDTO[] endpoints;
+
+    /**
+     * Service ids of implementors that are no longer part of the endpoints, the
+     * array may be empty.
+     */
+    public long[] removedEndpoints;
+
+    /**
+     * Failed endpoints that are added or changed, the array may be empty.
+     */
+    public FailedEndpointDTO[] failedEndpoints;
+
+    /**
+     * Service ids of implementors that are no longer part of the failed
+     * endpoints, the array may be empty.
+     */
+    public long[] removedFailedEndpoints;
+
+    /**
+     * Handlers that are added or changed, the array may be empty.
+     */
+    public HandlerDTO[] handlers;
+
+    /**
+     * Service ids of handlers that are no longer part of the handlers, the array
+     * may be empty.
+     */
+    public long[] removedHandlers;
+
+    /**
+     * Failed handlers that are added or changed, the array may be empty.
+     */
+    public FailedHandlerDTO[] failedHandlers;
+
+    /**
+     * Service ids of handlers that are no longer part of the failed handlers, the
+     * array may be empty.
+     */
+    public long[] removedFailedHandlers;
+}
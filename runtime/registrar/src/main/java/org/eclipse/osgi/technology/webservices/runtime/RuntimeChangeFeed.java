@@ -0,0 +1,67 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.osgi.technology.webservices.runtime;
+
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+
+import org.osgi.annotation.versioning.ProviderType;
+import org.osgi.framework.Constants;
+import org.osgi.service.webservice.runtime.WebserviceServiceRuntime;
+import org.osgi.service.webservice.runtime.dto.RuntimeDTO;
+
+/**
+ * A {@link WebserviceServiceRuntime} that in addition to the full
+ * {@link RuntimeDTO} offers the changes between two states, identified by the
+ * {@link Constants#SERVICE_CHANGECOUNT} of the runtime service.
+ */
+@ProviderType
+public interface RuntimeChangeFeed extends WebserviceServiceRuntime {
+
+    /**
+     * @return the change count of the current state
+     */
+    long getChangeCount();
+
+    /**
+     * Returns the changes between the state with the given change count and the
+     * current state
+     *
+     * @param changeCount the change count of the state the caller knows about
+     * @return the changes since the given state, if the state is no longer known
+     *         the result is marked as {@link RuntimeChangeDTO#full full}
+     */
+    RuntimeChangeDTO getChangesSince(long changeCount);
+
+    /**
+     * Returns a stage that completes with the changes since the given change
+     * count as soon as the state is newer than the given one. The stage is never
+     * completed on the thread that changed the state.
+     *
+     * @param changeCount the change count of the state the caller knows about
+     * @return a stage that completes with the changes
+     */
+    CompletionStage<RuntimeChangeDTO> onChange(long changeCount);
+
+    /**
+     * Waits until the state is newer than the given change count
+     *
+     * @param changeCount the change count of the state the caller knows about
+     * @param timeout     the maximum time to wait
+     * @param unit        the unit of the timeout
+     * @return the changes since the given state or <code>null</code> if there
+     *         was no change until the timeout elapsed
+     * @throws InterruptedException if the thread was interrupted while waiting
+     */
+    RuntimeChangeDTO awaitChange(long changeCount, long timeout, TimeUnit unit) throws InterruptedException;
+}
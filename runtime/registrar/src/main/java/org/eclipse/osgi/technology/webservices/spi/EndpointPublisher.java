@@ -12,6 +12,8 @@
  *******************************************************************************/
 package org.eclipse.osgi.technology.webservices.spi;
 
+import java.util.concurrent.Executor;
+
 import org.osgi.annotation.versioning.ProviderType;
 
 import jakarta.xml.ws.Endpoint;
@@ -36,4 +38,26 @@ public interface EndpointPublisher {
      *                          is invalid
      */
     PublishedEndpoint publishEndpoint(Endpoint endpoint);
+
+    /**
+     * Called by the Endpoint Registrar to publish an endpoint whose requests
+     * should be processed by the given executor. The default sets the executor on
+     * the endpoint, a publisher that dispatches the requests itself should
+     * override this and hand the requests to the executor on its own, otherwise
+     * each request is handed off twice and the publisher can't tell when it is
+     * done.
+     *
+     * @param endpoint the endpoint to publish
+     * @param executor the executor for the requests or <code>null</code> if they
+     *                 should be processed on the calling thread
+     * @return the published endpoint
+     * @throws RuntimeException when the endpoint is failing to publish because it
+     *                          is invalid
+     */
+    default PublishedEndpoint publishEndpoint(Endpoint endpoint, Executor executor) {
+        if (executor != null) {
+            endpoint.setExecutor(executor);
+        }
+        return publishEndpoint(endpoint);
+    }
 }
@@ -12,6 +12,8 @@
  *******************************************************************************/
 package org.eclipse.osgi.technology.webservices.spi;
 
+import java.util.Map;
+
 import org.osgi.annotation.versioning.ProviderType;
 
 /**
@@ -31,4 +33,26 @@ public interface PublishedEndpoint {
      */
     String getAddress();
 
+    /**
+     * Adds a listener that is called whenever the value returned by
+     * {@link #getAddress()} has changed, for example because the underlying
+     * transport became available after the endpoint was published. The default
+     * implementation does nothing as the address is assumed to never change.
+     *
+     * @param listener the listener to call
+     */
+    default void addAddressChangeListener(Runnable listener) {
+    }
+
+    /**
+     * Returns the current statistics of the endpoint, for example the number of
+     * requests in flight. The names of the statistics are specific to the
+     * publisher. The default implementation returns an empty map.
+     *
+     * @return the current statistics, never <code>null</code>
+     */
+    default Map<String, Long> getStatistics() {
+        return Map.of();
+    }
+
 }
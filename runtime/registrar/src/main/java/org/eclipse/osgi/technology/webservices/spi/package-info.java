@@ -11,5 +11,5 @@
  *     Christoph Läubrich - initial API and implementation
  *******************************************************************************/
 @org.osgi.annotation.bundle.Export
-@org.osgi.annotation.versioning.Version("1")
+@org.osgi.annotation.versioning.Version("1.1")
 package org.eclipse.osgi.technology.webservices.spi;
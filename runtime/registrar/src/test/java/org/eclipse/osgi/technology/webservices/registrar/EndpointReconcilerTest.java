@@ -0,0 +1,152 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.osgi.technology.webservices.registrar;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.osgi.technology.webservices.registrar.EndpointReconciler.HandlerChange;
+import org.eclipse.osgi.technology.webservices.registrar.EndpointReconciler.ReconcilePlan;
+import org.junit.jupiter.api.Test;
+import org.osgi.framework.Constants;
+import org.osgi.framework.ServiceReference;
+import org.osgi.service.log.Logger;
+
+import jakarta.xml.ws.handler.Handler;
+import jakarta.xml.ws.handler.MessageContext;
+
+/**
+ * Tests that {@link EndpointReconciler} coalesces a burst of changes into a
+ * single plan once the settle window has passed and that changes are rejected
+ * after it was closed
+ */
+public class EndpointReconcilerTest {
+
+    private static final long SETTLE_WINDOW = 200;
+
+    private static final AtomicLong SERVICE_ID = new AtomicLong();
+
+    @Test
+    public void testBurstIsCoalesced() throws InterruptedException {
+        List<ReconcilePlan> plans = new CopyOnWriteArrayList<>();
+        EndpointReconciler reconciler = new EndpointReconciler(logger(), SETTLE_WINDOW, plans::add);
+        try {
+            List<ServiceReference<?>> endpoints = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                endpoints.add(reference());
+            }
+            long start = System.nanoTime();
+            for (int i = 0; i < 100; i++) {
+                ServiceReference<?> endpoint = endpoints.get(i % endpoints.size());
+                reconciler.endpointChanged(endpoint);
+                HandlerInfo handler = handler();
+                assertTrue(reconciler.handlerChanged(null, handler));
+                assertTrue(reconciler.handlerChanged(handler, null));
+                reconciler.stateChanged();
+            }
+            awaitPlans(plans, 1);
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            assertTrue(elapsed >= SETTLE_WINDOW, "plan applied before the settle window passed: " + elapsed + "ms");
+            // give a second (wrong) pass the chance to run
+            Thread.sleep(SETTLE_WINDOW * 2);
+            assertEquals(1, plans.size(), "burst must result in a single refresh");
+            ReconcilePlan plan = plans.get(0);
+            assertFalse(plan.refreshAll());
+            assertEquals(10, plan.endpoints().size());
+            assertTrue(plan.endpoints().containsAll(endpoints));
+            assertEquals(200, plan.handlerChanges().size());
+        } finally {
+            reconciler.close();
+        }
+    }
+
+    @Test
+    public void testChangesAfterApplyStartNewPass() throws InterruptedException {
+        List<ReconcilePlan> plans = new CopyOnWriteArrayList<>();
+        EndpointReconciler reconciler = new EndpointReconciler(logger(), SETTLE_WINDOW, plans::add);
+        try {
+            reconciler.endpointChanged(reference());
+            awaitPlans(plans, 1);
+            reconciler.allChanged();
+            reconciler.allChanged();
+            awaitPlans(plans, 2);
+            Thread.sleep(SETTLE_WINDOW * 2);
+            assertEquals(2, plans.size());
+            assertFalse(plans.get(0).refreshAll());
+            assertTrue(plans.get(1).refreshAll());
+            assertTrue(plans.get(1).endpoints().isEmpty());
+        } finally {
+            reconciler.close();
+        }
+    }
+
+    @Test
+    public void testClose() throws InterruptedException {
+        List<ReconcilePlan> plans = new CopyOnWriteArrayList<>();
+        EndpointReconciler reconciler = new EndpointReconciler(logger(), SETTLE_WINDOW, plans::add);
+        HandlerInfo pending = handler();
+        assertTrue(reconciler.handlerChanged(pending, null));
+        List<HandlerChange> changes = reconciler.close();
+        assertEquals(1, changes.size());
+        assertEquals(pending, changes.get(0).oldInfo());
+        // SCR might call unbind methods after deactivate, the caller has to
+        // dispose the info itself then
+        assertFalse(reconciler.handlerChanged(handler(), null));
+        reconciler.endpointChanged(reference());
+        reconciler.stateChanged();
+        Thread.sleep(SETTLE_WINDOW * 2);
+        assertTrue(plans.isEmpty(), "no plan must be applied after close");
+    }
+
+    private static void awaitPlans(List<ReconcilePlan> plans, int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (plans.size() < count) {
+            assertTrue(System.nanoTime() < deadline, "plan was not applied in time");
+            Thread.sleep(10);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static HandlerInfo handler() {
+        return new HandlerInfo((ServiceReference<Handler<? extends MessageContext>>) reference(), null);
+    }
+
+    private static ServiceReference<?> reference() {
+        Map<String, Object> properties = Map.of(Constants.SERVICE_ID, SERVICE_ID.incrementAndGet());
+        return (ServiceReference<?>) Proxy.newProxyInstance(EndpointReconcilerTest.class.getClassLoader(),
+                new Class<?>[] { ServiceReference.class }, (proxy, method, args) -> {
+                    return switch (method.getName()) {
+                    case "getProperty" -> properties.get(args[0]);
+                    case "getPropertyKeys" -> properties.keySet().toArray(String[]::new);
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> properties.toString();
+                    default -> throw new UnsupportedOperationException(method.getName());
+                    };
+                });
+    }
+
+    private static Logger logger() {
+        return (Logger) Proxy.newProxyInstance(EndpointReconcilerTest.class.getClassLoader(),
+                new Class<?>[] { Logger.class }, (proxy, method, args) -> null);
+    }
+}
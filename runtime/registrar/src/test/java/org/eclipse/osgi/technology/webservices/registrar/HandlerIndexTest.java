@@ -0,0 +1,182 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.osgi.technology.webservices.registrar;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.osgi.framework.Constants;
+import org.osgi.framework.ServiceReference;
+import org.osgi.service.webservice.whiteboard.WebserviceWhiteboardConstants;
+
+import jakarta.xml.ws.handler.Handler;
+import jakarta.xml.ws.handler.MessageContext;
+
+/**
+ * Tests the extraction of index terms from handler filters and the candidate
+ * lookup, the candidates must always be a superset of the matching handlers
+ */
+public class HandlerIndexTest {
+
+    private static final AtomicLong SERVICE_ID = new AtomicLong();
+
+    @Test
+    public void testSimpleTerm() {
+        assertTerm("(name=echo)", "name", "echo");
+        assertTerm("(Name=Echo)", "name", "Echo");
+    }
+
+    @Test
+    public void testEscapedValue() {
+        assertTerm("(name=a\\(b\\))", "name", "a(b)");
+        assertTerm("(name=a\\*b)", "name", "a*b");
+        assertTerm("(name=a\\\\b)", "name", "a\\b");
+        assertTerm("(&(name=a\\)b)(other=c))", "name", "a)b");
+        assertTerm("(&(name=a*b)(other=\\(c\\)))", "other", "(c)");
+    }
+
+    @Test
+    public void testSubstringAndPresence() {
+        assertNull(HandlerIndex.indexTerm("(name=*)"));
+        assertNull(HandlerIndex.indexTerm("(name=echo*)"));
+        assertNull(HandlerIndex.indexTerm("(name=*echo)"));
+        assertNull(HandlerIndex.indexTerm("(name=e*o)"));
+        assertTerm("(&(name=*)(other=c))", "other", "c");
+    }
+
+    @Test
+    public void testOtherOperators() {
+        assertNull(HandlerIndex.indexTerm("(name~=echo)"));
+        assertNull(HandlerIndex.indexTerm("(name>=echo)"));
+        assertNull(HandlerIndex.indexTerm("(name<=echo)"));
+        assertNull(HandlerIndex.indexTerm("(=echo)"));
+        assertNull(HandlerIndex.indexTerm("(name=)"));
+        assertNull(HandlerIndex.indexTerm("name=echo"));
+        assertNull(HandlerIndex.indexTerm("()"));
+    }
+
+    @Test
+    public void testNestedFilters() {
+        assertNull(HandlerIndex.indexTerm("(|(name=a)(name=b))"));
+        assertNull(HandlerIndex.indexTerm("(!(name=a))"));
+        assertNull(HandlerIndex.indexTerm("(&(|(name=a)(name=b))(!(other=c)))"));
+        assertTerm("(&(|(name=a)(name=b))(other=c))", "other", "c");
+        assertTerm("(&(!(name=a))(other=c))", "other", "c");
+        assertTerm("(&(&(name=a)(x=y))(other=c))", "other", "c");
+        assertTerm("(&(name=a)(other=c))", "name", "a");
+    }
+
+    @Test
+    public void testWhitespace() {
+        assertTerm("( name =echo)", "name", "echo");
+        assertTerm("(&(name=echo) (other=c))", "name", "echo");
+        // whitespace in values is significant
+        assertNull(HandlerIndex.indexTerm("(name= echo)"));
+        assertNull(HandlerIndex.indexTerm("(name=echo )"));
+        assertTerm("(name=e c h o)", "name", "e c h o");
+    }
+
+    @Test
+    public void testStringCandidates() {
+        HandlerIndex index = new HandlerIndex();
+        HandlerInfo echo = addHandler(index, "(name=echo)");
+        HandlerInfo other = addHandler(index, "(name=other)");
+        HandlerInfo all = addHandler(index, null);
+        HandlerInfo substring = addHandler(index, "(name=ec*)");
+        assertCandidates(index, Map.of("name", "echo"), List.of(echo, all, substring), List.of(other));
+        assertCandidates(index, Map.of("name", List.of("other", "x")), List.of(other, all), List.of(echo, substring));
+        assertCandidates(index, Map.of("name", new String[] { "echo", "other" }), List.of(echo, other, all, substring),
+                List.of());
+        assertCandidates(index, Map.of(), List.of(all), List.of(echo, other, substring));
+    }
+
+    @Test
+    public void testNonStringCandidates() {
+        HandlerIndex index = new HandlerIndex();
+        HandlerInfo port = addHandler(index, "(port=8080)");
+        HandlerInfo otherPort = addHandler(index, "(port=9090)");
+        HandlerInfo flag = addHandler(index, "(&(flag=true)(port=*))");
+        assertCandidates(index, Map.of("port", 8080), List.of(port), List.of(otherPort, flag));
+        assertCandidates(index, Map.of("port", 8080L, "flag", Boolean.TRUE), List.of(port, flag), List.of(otherPort));
+        assertCandidates(index, Map.of("port", new int[] { 1, 9090 }), List.of(otherPort), List.of(port));
+        assertCandidates(index, Map.of("port", List.of("1", 9090)), List.of(otherPort), List.of(port));
+        assertCandidates(index, Map.of("port", new long[] { 8080L }), List.of(port), List.of(otherPort));
+    }
+
+    @Test
+    public void testFilterError() {
+        HandlerIndex index = new HandlerIndex();
+        HandlerInfo invalid = addHandler(index, "(name=echo");
+        assertTrue(invalid.hasFilterError());
+        assertFalse(index.candidates(reference(Map.of("name", "echo"))).contains(invalid));
+    }
+
+    private static void assertTerm(String filter, String key, String value) {
+        assertArrayEquals(new String[] { key, value }, HandlerIndex.indexTerm(filter), filter);
+    }
+
+    /**
+     * Asserts that all matching handlers are candidates and the handlers that do
+     * not match are not
+     */
+    private static void assertCandidates(HandlerIndex index, Map<String, Object> properties,
+            List<HandlerInfo> matching, List<HandlerInfo> notMatching) {
+        ServiceReference<?> implementor = reference(properties);
+        Collection<HandlerInfo> candidates = index.candidates(implementor);
+        for (HandlerInfo info : matching) {
+            assertTrue(info.matches(implementor), () -> info.getFilter() + " must match " + properties);
+            assertTrue(candidates.contains(info), () -> info.getFilter() + " is not a candidate for " + properties);
+        }
+        for (HandlerInfo info : notMatching) {
+            assertFalse(info.matches(implementor), () -> info.getFilter() + " must not match " + properties);
+        }
+        assertEquals(candidates.stream().filter(info -> info.matches(implementor)).count(),
+                index.values().stream().filter(info -> info.matches(implementor)).count());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static HandlerInfo addHandler(HandlerIndex index, String filter) {
+        Map<String, Object> properties = filter == null ? Map.of(Constants.SERVICE_ID, SERVICE_ID.incrementAndGet())
+                : Map.of(Constants.SERVICE_ID, SERVICE_ID.incrementAndGet(),
+                        WebserviceWhiteboardConstants.WEBSERVICE_HANDLER_FILTER, filter);
+        ServiceReference<Handler<? extends MessageContext>> reference = (ServiceReference<Handler<? extends MessageContext>>) reference(
+                properties);
+        HandlerInfo info = new HandlerInfo(reference, null);
+        index.put(reference, info);
+        return info;
+    }
+
+    private static ServiceReference<?> reference(Map<String, Object> properties) {
+        return (ServiceReference<?>) Proxy.newProxyInstance(HandlerIndexTest.class.getClassLoader(),
+                new Class<?>[] { ServiceReference.class }, (proxy, method, args) -> {
+                    return switch (method.getName()) {
+                    case "getProperty" -> properties.get(args[0]);
+                    case "getPropertyKeys" -> properties.keySet().toArray(String[]::new);
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> properties.toString();
+                    default -> throw new UnsupportedOperationException(method.getName());
+                    };
+                });
+    }
+}
@@ -0,0 +1,123 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.osgi.technology.webservices.registrar;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.osgi.service.log.Logger;
+
+/**
+ * Tests the bounded parallelism of {@link PublishExecutor} and that
+ * {@link PublishExecutor#runAll(java.util.Collection)} always returns once all
+ * tasks are done, even if some of them fail
+ */
+public class PublishExecutorTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    @Test
+    public void testParallelismBound() {
+        PublishExecutor executor = new PublishExecutor(logger(), 3, false);
+        try {
+            AtomicInteger running = new AtomicInteger();
+            AtomicInteger maxRunning = new AtomicInteger();
+            AtomicInteger completed = new AtomicInteger();
+            List<Runnable> tasks = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                tasks.add(() -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    sleep(20);
+                    running.decrementAndGet();
+                    completed.incrementAndGet();
+                });
+            }
+            assertTimeoutPreemptively(TIMEOUT, () -> executor.runAll(tasks));
+            assertEquals(20, completed.get());
+            assertTrue(maxRunning.get() <= 3, "at most 3 tasks must run at once but were " + maxRunning.get());
+            assertTrue(maxRunning.get() > 1, "tasks must run in parallel");
+        } finally {
+            executor.close();
+        }
+    }
+
+    @Test
+    public void testFailingTasksReleaseLatch() {
+        PublishExecutor executor = new PublishExecutor(logger(), 2, false);
+        try {
+            AtomicInteger completed = new AtomicInteger();
+            List<Runnable> tasks = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                int index = i;
+                tasks.add(() -> {
+                    if (index % 3 == 0) {
+                        throw new IllegalStateException("publish failed");
+                    }
+                    if (index % 3 == 1) {
+                        throw new Error("fatal");
+                    }
+                    completed.incrementAndGet();
+                });
+            }
+            assertTimeoutPreemptively(TIMEOUT, () -> executor.runAll(tasks));
+            assertEquals(3, completed.get());
+        } finally {
+            executor.close();
+        }
+    }
+
+    @Test
+    public void testSingleThreadRunsOnCaller() {
+        PublishExecutor executor = new PublishExecutor(logger(), 1, false);
+        List<Thread> threads = new ArrayList<>();
+        executor.runAll(List.of(() -> threads.add(Thread.currentThread()), () -> {
+            throw new IllegalStateException("publish failed");
+        }, () -> threads.add(Thread.currentThread())));
+        assertEquals(2, threads.size());
+        threads.forEach(thread -> assertSame(Thread.currentThread(), thread));
+    }
+
+    @Test
+    public void testRunAllAfterClose() {
+        PublishExecutor executor = new PublishExecutor(logger(), 2, false);
+        executor.close();
+        AtomicInteger completed = new AtomicInteger();
+        // rejected tasks must not block the caller while shutting down
+        assertTimeoutPreemptively(TIMEOUT,
+                () -> executor.runAll(List.of(completed::incrementAndGet, completed::incrementAndGet)));
+        assertEquals(0, completed.get());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Logger logger() {
+        return (Logger) Proxy.newProxyInstance(PublishExecutorTest.class.getClassLoader(),
+                new Class<?>[] { Logger.class }, (proxy, method, args) -> null);
+    }
+}
@@ -18,6 +18,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import java.util.Hashtable;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import org.assertj.core.api.Condition;
 import org.eclipse.osgi.technology.webservices.integration.tests.handler.BadHandler;
@@ -27,6 +28,8 @@ import org.eclipse.osgi.technology.webservices.integration.tests.handler.TestSoa
 import org.eclipse.osgi.technology.webservices.integration.tests.handler.TestSoapHandler2;
 import org.eclipse.osgi.technology.webservices.integration.tests.implementor.BadImplementor;
 import org.eclipse.osgi.technology.webservices.integration.tests.implementor.WSEcho;
+import org.eclipse.osgi.technology.webservices.runtime.RuntimeChangeDTO;
+import org.eclipse.osgi.technology.webservices.runtime.RuntimeChangeFeed;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.osgi.framework.BundleContext;
@@ -89,6 +92,47 @@ public class JakartaWebserviceWhiteboardTestCase extends TestBase {
         assertThat(soapHandler.handledMessages.get()).isEqualTo(2);
     }
 
+    @Test
+    public void testHandlerAddedAfterPublish(@InjectBundleContext BundleContext bundleContext) throws Exception {
+        String id = UUID.randomUUID().toString();
+        EndpointDTO endpoint = registerEchoEndpoint(bundleContext, id, DEFAULT_PUBLISH_ADDRESS + "/wslatehandler");
+        assertThat(endpoint.handlers).isEmpty();
+        assertEndpointEcho(endpoint);
+        TestSoapHandler soapHandler = registerSoapHandler(bundleContext, String.format("(%s=%s)", KEY_UUUID, id));
+        EndpointDTO updated = waitForDTO(10, SECONDS, dto -> {
+            for (EndpointDTO ep : dto.endpoints) {
+                if (id.equals(ep.implementor.properties.get(KEY_UUUID)) && ep.address != null
+                        && ep.handlers.length > 0) {
+                    return ep;
+                }
+            }
+            return null;
+        }, "Handler was not bound to the published endpoint");
+        assertEndpointEcho(updated);
+        // the chain listed in the DTO must be the one that handles the requests
+        assertThat(soapHandler.handledMessages.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void testChangeFeed(@InjectBundleContext BundleContext bundleContext) throws Exception {
+        assertThat(runtime).isInstanceOf(RuntimeChangeFeed.class);
+        RuntimeChangeFeed feed = (RuntimeChangeFeed) runtime;
+        long changeCount = feed.getChangeCount();
+        RuntimeChangeDTO unchanged = feed.getChangesSince(changeCount);
+        assertThat(unchanged.full).isFalse();
+        assertThat(unchanged.endpoints).isEmpty();
+        assertThat(unchanged.removedEndpoints).isEmpty();
+        String id = UUID.randomUUID().toString();
+        CompletableFuture<RuntimeChangeDTO> next = feed.onChange(changeCount).toCompletableFuture();
+        EndpointDTO endpoint = registerEchoEndpoint(bundleContext, id, DEFAULT_PUBLISH_ADDRESS + "/wsfeed");
+        assertThat(next.get(10, SECONDS).changeCount).isGreaterThan(changeCount);
+        RuntimeChangeDTO changes = feed.getChangesSince(changeCount);
+        assertThat(changes.full).isFalse();
+        assertThat(changes.fromChangeCount).isEqualTo(changeCount);
+        assertThat(changes.endpoints).extracting(dto -> dto.implementor.id).contains(endpoint.implementor.id);
+        assertThat(feed.getChangesSince(-2).full).isTrue();
+    }
+
     @Test
     public void testFailedHandler(@InjectBundleContext BundleContext bundleContext) throws Exception {
         String publishAddress = DEFAULT_PUBLISH_ADDRESS + "/dontcare";
@@ -12,18 +12,55 @@
  *******************************************************************************/
 package org.eclipse.osgi.technology.webservices.integration.tests;
 
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
+import org.eclipse.osgi.technology.webservices.integration.tests.binding.Echo;
+import org.eclipse.osgi.technology.webservices.integration.tests.binding.WSEchoService;
+import org.eclipse.osgi.technology.webservices.integration.tests.handler.TestSoapHandler;
+import org.eclipse.osgi.technology.webservices.integration.tests.implementor.WSEcho;
+import org.eclipse.osgi.technology.webservices.propertytypes.EndpointCompression;
+import org.eclipse.osgi.technology.webservices.propertytypes.EndpointConcurrency;
+import org.eclipse.osgi.technology.webservices.propertytypes.EndpointExecutor;
+import org.eclipse.osgi.technology.webservices.propertytypes.EndpointFeatures;
+import org.eclipse.osgi.technology.webservices.runtime.PublishedEndpointDTO;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.osgi.framework.BundleContext;
+import org.osgi.framework.FrameworkUtil;
+import org.osgi.framework.ServiceRegistration;
+import org.osgi.service.cm.Configuration;
+import org.osgi.service.cm.ConfigurationAdmin;
+import org.osgi.service.http.runtime.HttpServiceRuntime;
 import org.osgi.service.webservice.runtime.WebserviceServiceRuntime;
 import org.osgi.service.webservice.runtime.dto.EndpointDTO;
+import org.osgi.service.webservice.runtime.dto.FailedEndpointDTO;
+import org.osgi.service.webservice.whiteboard.WebserviceWhiteboardConstants;
 import org.osgi.test.common.annotation.InjectBundleContext;
 import org.osgi.test.common.annotation.InjectService;
 import org.osgi.test.junit5.context.BundleContextExtension;
 import org.osgi.test.junit5.service.ServiceExtension;
 
+import jakarta.xml.ws.handler.Handler;
+
 /**
  * Test integration with http-whiteboard publisher
  */
@@ -31,9 +68,17 @@ import org.osgi.test.junit5.service.ServiceExtension;
 @ExtendWith(BundleContextExtension.class)
 public class RegisterWithServletWhiteboardTestCase extends TestBase {
 
+    private static final String PUBLISHER_PID = "org.eclipse.osgi.technology.webservices.httpwhiteboard";
+
     @InjectService(timeout = 10000)
     WebserviceServiceRuntime runtime;
 
+    @InjectService(timeout = 10000)
+    HttpServiceRuntime httpServiceRuntime;
+
+    @InjectService(timeout = 10000)
+    ConfigurationAdmin configurationAdmin;
+
     @Test
     public void testEchoService(@InjectBundleContext BundleContext bundleContext) throws Exception {
         EndpointDTO dto = registerEchoEndpoint(bundleContext, UUID.randomUUID().toString(), "/echo");
@@ -41,6 +86,389 @@ public class RegisterWithServletWhiteboardTestCase extends TestBase {
         assertEndpointEcho(dto);
     }
 
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    public void testVirtualThreadExecutor(@InjectBundleContext BundleContext bundleContext) throws Exception {
+        Hashtable<String, Object> properties = getImplementorProperties("/echovirtual");
+        properties.put(EndpointExecutor.NAME, EndpointExecutor.VIRTUAL);
+        WSEcho implementor = new WSEcho();
+        EndpointDTO dto = registerEchoEndpoint(bundleContext, UUID.randomUUID().toString(), implementor,
+                properties);
+        // the response must be complete even though the request is handed to
+        // another thread
+        for (int i = 0; i < 10; i++) {
+            assertEndpointEcho(dto);
+        }
+        Thread caller = implementor.getLastCaller();
+        assertThat(caller).isNotNull();
+        assertThat(Thread.class.getMethod("isVirtual").invoke(caller)).as("virtual thread").isEqualTo(Boolean.TRUE);
+    }
+
+    @Test
+    public void testContextPathConflict(@InjectBundleContext BundleContext bundleContext) throws Exception {
+        EndpointDTO first = registerEchoEndpoint(bundleContext, UUID.randomUUID().toString(), "/echoconflict");
+        String id = UUID.randomUUID().toString();
+        Hashtable<String, Object> properties = getImplementorProperties("/echoconflict");
+        properties.put(KEY_UUUID, id);
+        bundleContext.registerService(WSEcho.class, new WSEcho(), properties);
+        FailedEndpointDTO failed = waitForDTO(10, SECONDS, dto -> {
+            for (FailedEndpointDTO ep : dto.failedEndpoints) {
+                if (id.equals(ep.implementor.properties.get(KEY_UUUID))) {
+                    return ep;
+                }
+            }
+            return null;
+        }, "Second endpoint on the same path not marked as failed");
+        assertThat(failed.failureCode).isEqualTo(FailedEndpointDTO.FAILURE_REASON_PUBLISH_FAILED);
+        assertEndpointEcho(first);
+    }
+
+    @Test
+    public void testContextPathReleased(@InjectBundleContext BundleContext bundleContext) throws Exception {
+        String ownerId = UUID.randomUUID().toString();
+        Hashtable<String, Object> ownerProperties = getImplementorProperties("/echoreleased");
+        ownerProperties.put(KEY_UUUID, ownerId);
+        ServiceRegistration<WSEcho> owner = bundleContext.registerService(WSEcho.class, new WSEcho(),
+                ownerProperties);
+        waitForDTO(10, SECONDS, dto -> findEndpoint(dto.endpoints, ownerId), "First endpoint not published");
+        String id = UUID.randomUUID().toString();
+        Hashtable<String, Object> properties = getImplementorProperties("/echoreleased");
+        properties.put(KEY_UUUID, id);
+        bundleContext.registerService(WSEcho.class, new WSEcho(), properties);
+        waitForDTO(10, SECONDS, dto -> {
+            for (FailedEndpointDTO ep : dto.failedEndpoints) {
+                if (id.equals(ep.implementor.properties.get(KEY_UUUID))) {
+                    return ep;
+                }
+            }
+            return null;
+        }, "Second endpoint on the same path not marked as failed");
+        // once the path is free again the failed endpoint must take it over
+        owner.unregister();
+        EndpointDTO published = waitForDTO(10, SECONDS, dto -> findEndpoint(dto.endpoints, id),
+                "Failed endpoint not published after the path was released");
+        assertEndpointEcho(published);
+    }
+
+    @Test
+    public void testRepublishUnderLoad(@InjectBundleContext BundleContext bundleContext) throws Exception {
+        String id = UUID.randomUUID().toString();
+        EndpointDTO dto = registerEchoEndpoint(bundleContext, id, "/echorepublish");
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        Thread client = new Thread(() -> {
+            while (running.get()) {
+                try {
+                    HttpURLConnection connection = openEchoConnection(dto);
+                    try (OutputStream out = connection.getOutputStream()) {
+                        out.write(echoRequest("republish").getBytes(StandardCharsets.UTF_8));
+                    }
+                    if (connection.getResponseCode() == HttpURLConnection.HTTP_OK) {
+                        succeeded.incrementAndGet();
+                    } else {
+                        System.out.println("Request failed with status " + connection.getResponseCode());
+                        failed.incrementAndGet();
+                    }
+                } catch (IOException e) {
+                    System.out.println("Request failed: " + e);
+                    failed.incrementAndGet();
+                }
+            }
+        }, "Republish Client");
+        client.start();
+        try {
+            // every change of the matching handlers republishes the endpoint
+            for (int i = 0; i < 5; i++) {
+                ServiceRegistration<?> handler = bundleContext.registerService(Handler.class, new TestSoapHandler(),
+                        FrameworkUtil.asDictionary(Map.of(WebserviceWhiteboardConstants.WEBSERVICE_HANDLER_FILTER,
+                                String.format("(%s=%s)", KEY_UUUID, id),
+                                WebserviceWhiteboardConstants.WEBSERVICE_HANDLER_EXTENSION, true)));
+                waitForDTO(10, SECONDS, runtimeDTO -> {
+                    EndpointDTO endpoint = findEndpoint(runtimeDTO.endpoints, id);
+                    return endpoint != null && endpoint.handlers.length > 0 ? endpoint : null;
+                }, "Endpoint was not republished with the handler");
+                handler.unregister();
+                waitForDTO(10, SECONDS, runtimeDTO -> {
+                    EndpointDTO endpoint = findEndpoint(runtimeDTO.endpoints, id);
+                    return endpoint != null && endpoint.handlers.length == 0 ? endpoint : null;
+                }, "Endpoint was not republished without the handler");
+            }
+        } finally {
+            running.set(false);
+            client.join(SECONDS.toMillis(10));
+        }
+        assertThat(succeeded.get()).as("successful requests").isPositive();
+        assertThat(failed.get()).as("failed requests").isZero();
+    }
+
+    @Test
+    public void testDispatcherPrefix(@InjectBundleContext BundleContext bundleContext) throws Exception {
+        Configuration configuration = configurationAdmin.getConfiguration(PUBLISHER_PID, "?");
+        configuration.update(FrameworkUtil.asDictionary(
+                Map.of("dispatcher.prefixes", new String[] { "/dispatched", "/dispatched/inner" })));
+        try {
+            String first = UUID.randomUUID().toString();
+            String second = UUID.randomUUID().toString();
+            String third = UUID.randomUUID().toString();
+            registerEchoEndpoint(bundleContext, first, "/dispatched/first");
+            registerEchoEndpoint(bundleContext, second, "/dispatched/second");
+            registerEchoEndpoint(bundleContext, third, "/dispatched/inner/third");
+            // the publisher is reactivated with the configuration, so wait until
+            // the endpoints are published by the configured one
+            long deadline = System.currentTimeMillis() + SECONDS.toMillis(10);
+            List<String> servlets = getServletNames();
+            while (!servlets.contains("JAX-WS Dispatcher for path prefix /dispatched/inner")
+                    || servlets.stream().anyMatch(name -> name.startsWith("JAX-WS Service for path /dispatched"))) {
+                assertThat(System.currentTimeMillis()).as("dispatcher servlets registered").isLessThan(deadline);
+                Thread.sleep(50);
+                servlets = getServletNames();
+            }
+            // one servlet per prefix, the longest matching prefix serves the
+            // endpoint
+            assertThat(servlets).containsOnlyOnce("JAX-WS Dispatcher for path prefix /dispatched",
+                    "JAX-WS Dispatcher for path prefix /dispatched/inner");
+            EndpointDTO[] endpoints = runtime.getRuntimeDTO().endpoints;
+            for (String id : List.of(first, second, third)) {
+                EndpointDTO endpoint = findEndpoint(endpoints, id);
+                assertThat(endpoint).as("endpoint " + id).isNotNull();
+                assertEndpointEcho(endpoint);
+            }
+            EndpointDTO endpoint = findEndpoint(endpoints, first);
+            HttpURLConnection unknown = (HttpURLConnection) new URL(
+                    endpoint.address.replace("/dispatched/first", "/dispatched/unknown")).openConnection();
+            assertThat(unknown.getResponseCode()).isEqualTo(HttpURLConnection.HTTP_NOT_FOUND);
+        } finally {
+            configuration.delete();
+            long deadline = System.currentTimeMillis() + SECONDS.toMillis(10);
+            while (getServletNames().stream().anyMatch(name -> name.startsWith("JAX-WS Dispatcher"))
+                    && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+        }
+    }
+
+    private List<String> getServletNames() {
+        return Arrays.stream(httpServiceRuntime.getRuntimeDTO().servletContextDTOs)
+                .flatMap(context -> Arrays.stream(context.servletDTOs)).map(servlet -> servlet.name).toList();
+    }
+
+    private static EndpointDTO findEndpoint(EndpointDTO[] endpoints, String id) {
+        for (EndpointDTO endpoint : endpoints) {
+            if (id.equals(endpoint.implementor.properties.get(KEY_UUUID))) {
+                return endpoint;
+            }
+        }
+        return null;
+    }
+
+    @Test
+    public void testConcurrencyStatistics(@InjectBundleContext BundleContext bundleContext) throws Exception {
+        Hashtable<String, Object> properties = getImplementorProperties("/echolimited");
+        properties.put(EndpointConcurrency.MAX_CONCURRENCY, 1);
+        String id = UUID.randomUUID().toString();
+        EndpointDTO dto = registerEchoEndpoint(bundleContext, id, properties);
+        assertThat(dto).isInstanceOf(PublishedEndpointDTO.class);
+        assertEndpointEcho(dto);
+        assertThat(getStatistics(id)).containsEntry("maxConcurrency", 1L).containsEntry("rejected", 0L);
+        long accepted = getStatistics(id).get("accepted");
+        assertThat(accepted).isPositive();
+        // occupy the only slot with a request whose body is not complete yet
+        byte[] request = echoRequest("blocked").getBytes(StandardCharsets.UTF_8);
+        HttpURLConnection blocking = openEchoConnection(dto);
+        blocking.setChunkedStreamingMode(16);
+        try (OutputStream out = blocking.getOutputStream()) {
+            out.write(request, 0, 10);
+            out.flush();
+            long deadline = System.currentTimeMillis() + SECONDS.toMillis(10);
+            while (getStatistics(id).get("concurrency") < 1 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            HttpURLConnection rejected = openEchoConnection(dto);
+            try (OutputStream rejectedOut = rejected.getOutputStream()) {
+                rejectedOut.write(echoRequest("rejected").getBytes(StandardCharsets.UTF_8));
+            }
+            assertThat(rejected.getResponseCode()).isEqualTo(HttpURLConnection.HTTP_UNAVAILABLE);
+            assertThat(rejected.getHeaderField("Retry-After")).isEqualTo("1");
+            out.write(request, 10, request.length - 10);
+        }
+        assertThat(blocking.getResponseCode()).isEqualTo(HttpURLConnection.HTTP_OK);
+        try (InputStream stream = blocking.getInputStream()) {
+            assertThat(new String(stream.readAllBytes(), StandardCharsets.UTF_8)).contains("blocked");
+        }
+        assertThat(getStatistics(id)).containsEntry("accepted", accepted + 1).containsEntry("rejected", 1L);
+    }
+
+    private Map<String, Long> getStatistics(String id) {
+        for (EndpointDTO endpoint : runtime.getRuntimeDTO().endpoints) {
+            if (id.equals(endpoint.implementor.properties.get(KEY_UUUID))) {
+                return ((PublishedEndpointDTO) endpoint).statistics;
+            }
+        }
+        return Map.of();
+    }
+
+    @Test
+    public void testNonBlockingLargeMessage(@InjectBundleContext BundleContext bundleContext) throws Exception {
+        Hashtable<String, Object> properties = getImplementorProperties("/echononblocking");
+        properties.put(WebserviceWhiteboardConstants.WEBSERVICE_HTTP_ENDPOINT_PREFIX + "nonBlocking", true);
+        EndpointDTO dto = registerEchoEndpoint(bundleContext, UUID.randomUUID().toString(), properties);
+        Echo echo = new WSEchoService(new URL(dto.address + "?wsdl")).getEchoPort();
+        // spans several pooled chunks, repeated so buffers are reused between
+        // requests
+        for (int i = 0; i < 5; i++) {
+            String text = String.valueOf(i).repeat(100_000);
+            assertThat(echo.echo(text)).isEqualTo(text);
+        }
+    }
+
+    @Test
+    public void testNonBlockingTooLarge(@InjectBundleContext BundleContext bundleContext) throws Exception {
+        Hashtable<String, Object> properties = getImplementorProperties("/echotoolarge");
+        properties.put(WebserviceWhiteboardConstants.WEBSERVICE_HTTP_ENDPOINT_PREFIX + "nonBlocking", true);
+        properties.put(WebserviceWhiteboardConstants.WEBSERVICE_HTTP_ENDPOINT_PREFIX + "maxBufferedSize", 1024);
+        EndpointDTO dto = registerEchoEndpoint(bundleContext, UUID.randomUUID().toString(), properties);
+        assertEndpointEcho(dto);
+        byte[] request = echoRequest("x".repeat(2048)).getBytes(StandardCharsets.UTF_8);
+        HttpURLConnection fixedLength = openEchoConnection(dto);
+        try (OutputStream out = fixedLength.getOutputStream()) {
+            out.write(request);
+        }
+        assertThat(fixedLength.getResponseCode()).isEqualTo(413);
+        HttpURLConnection chunked = openEchoConnection(dto);
+        chunked.setChunkedStreamingMode(256);
+        try (OutputStream out = chunked.getOutputStream()) {
+            out.write(request);
+        } catch (IOException e) {
+            // the server might reject the request before all of it is sent
+        }
+        assertThat(chunked.getResponseCode()).isEqualTo(413);
+    }
+
+    @Test
+    public void testAsyncTimeout(@InjectBundleContext BundleContext bundleContext) throws Exception {
+        Hashtable<String, Object> properties = getImplementorProperties("/echotimeout");
+        properties.put(WebserviceWhiteboardConstants.WEBSERVICE_HTTP_ENDPOINT_PREFIX + "nonBlocking", true);
+        properties.put(WebserviceWhiteboardConstants.WEBSERVICE_HTTP_ENDPOINT_PREFIX + "asyncTimeout", 200);
+        properties.put(EndpointConcurrency.MAX_CONCURRENCY, 10);
+        String id = UUID.randomUUID().toString();
+        WSEcho implementor = new WSEcho();
+        EndpointDTO dto = registerEchoEndpoint(bundleContext, id, implementor, properties);
+        assertEndpointEcho(dto);
+        implementor.setDelay(2000);
+        long start = System.currentTimeMillis();
+        HttpURLConnection connection = openEchoConnection(dto);
+        try (OutputStream out = connection.getOutputStream()) {
+            out.write(echoRequest("slow").getBytes(StandardCharsets.UTF_8));
+        }
+        assertThat(connection.getResponseCode()).isEqualTo(HttpURLConnection.HTTP_UNAVAILABLE);
+        // answered by the timeout, not once the implementor returned
+        assertThat(System.currentTimeMillis() - start).isLessThan(2000);
+        implementor.setDelay(0);
+        // the aborted exchange releases its permit once the implementor is done
+        long deadline = System.currentTimeMillis() + SECONDS.toMillis(10);
+        while (getStatistics(id).get("concurrency") > 0) {
+            assertThat(System.currentTimeMillis()).as("permit of the aborted request released").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+        // the late response of the aborted exchange must not show up anywhere
+        // and the endpoint stays usable
+        for (int i = 0; i < 5; i++) {
+            HttpURLConnection next = openEchoConnection(dto);
+            try (OutputStream out = next.getOutputStream()) {
+                out.write(echoRequest("fast" + i).getBytes(StandardCharsets.UTF_8));
+            }
+            assertThat(next.getResponseCode()).isEqualTo(HttpURLConnection.HTTP_OK);
+            try (InputStream stream = next.getInputStream()) {
+                assertThat(new String(stream.readAllBytes(), StandardCharsets.UTF_8)).contains("fast" + i)
+                        .doesNotContain("slow");
+            }
+        }
+        assertThat(getStatistics(id)).containsEntry("concurrency", 0L);
+    }
+
+    @Test
+    public void testEndpointFeatures(@InjectBundleContext BundleContext bundleContext) throws Exception {
+        Hashtable<String, Object> properties = getImplementorProperties("/echomtom");
+        properties.put(EndpointFeatures.MTOM, true);
+        properties.put(EndpointFeatures.MTOM_THRESHOLD, 1024);
+        properties.put(EndpointFeatures.ADDRESSING, true);
+        EndpointDTO dto = registerEchoEndpoint(bundleContext, UUID.randomUUID().toString(), properties);
+        assertEndpointEcho(dto);
+        // the enabled features are advertised as policy assertions of the generated
+        // WSDL
+        assertThat(readWsdl(dto)).contains("OptimizedMimeSerialization").contains("Addressing");
+        EndpointDTO plain = registerEchoEndpoint(bundleContext, UUID.randomUUID().toString(), "/echoplain");
+        assertThat(readWsdl(plain)).doesNotContain("OptimizedMimeSerialization").doesNotContain("Addressing");
+    }
+
+    private static String readWsdl(EndpointDTO dto) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(dto.address + "?wsdl").openConnection();
+        assertThat(connection.getResponseCode()).isEqualTo(HttpURLConnection.HTTP_OK);
+        try (InputStream stream = connection.getInputStream()) {
+            return new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    public void testCompression(@InjectBundleContext BundleContext bundleContext) throws Exception {
+        Hashtable<String, Object> properties = getImplementorProperties("/echocompressed");
+        properties.put(EndpointCompression.COMPRESSION, true);
+        properties.put(EndpointCompression.COMPRESSION_THRESHOLD, 0);
+        EndpointDTO dto = registerEchoEndpoint(bundleContext, UUID.randomUUID().toString(), properties);
+        assertEndpointEcho(dto);
+        HttpURLConnection connection = (HttpURLConnection) new URL(dto.address + "?wsdl").openConnection();
+        connection.setRequestProperty("Accept-Encoding", "gzip");
+        assertThat(connection.getResponseCode()).isEqualTo(HttpURLConnection.HTTP_OK);
+        assertThat(connection.getHeaderField("Content-Encoding")).isEqualTo("gzip");
+        try (InputStream stream = new GZIPInputStream(connection.getInputStream())) {
+            assertThat(new String(stream.readAllBytes(), StandardCharsets.UTF_8)).contains("definitions");
+        }
+    }
+
+    @Test
+    public void testCompressedRequest(@InjectBundleContext BundleContext bundleContext) throws Exception {
+        Hashtable<String, Object> properties = getImplementorProperties("/echogzip");
+        properties.put(EndpointCompression.COMPRESSION, true);
+        properties.put(EndpointCompression.MAX_DECOMPRESSED_SIZE, 64 * 1024);
+        EndpointDTO dto = registerEchoEndpoint(bundleContext, UUID.randomUUID().toString(), properties);
+        String text = "compressed ".repeat(1000);
+        HttpURLConnection connection = openEchoConnection(dto);
+        connection.setRequestProperty("Content-Encoding", "gzip");
+        try (OutputStream out = new GZIPOutputStream(connection.getOutputStream())) {
+            out.write(echoRequest(text).getBytes(StandardCharsets.UTF_8));
+        }
+        assertThat(connection.getResponseCode()).isEqualTo(HttpURLConnection.HTTP_OK);
+        try (InputStream stream = connection.getInputStream()) {
+            assertThat(new String(stream.readAllBytes(), StandardCharsets.UTF_8)).contains(text);
+        }
+        // a few KB that expand beyond the limit must not be processed
+        HttpURLConnection bomb = openEchoConnection(dto);
+        bomb.setRequestProperty("Content-Encoding", "gzip");
+        try (OutputStream out = new GZIPOutputStream(bomb.getOutputStream())) {
+            out.write(echoRequest("x".repeat(1024 * 1024)).getBytes(StandardCharsets.UTF_8));
+        }
+        assertThat(bomb.getResponseCode()).isGreaterThanOrEqualTo(HttpURLConnection.HTTP_BAD_REQUEST);
+    }
+
+    @Test
+    public void testCachedWsdl(@InjectBundleContext BundleContext bundleContext) throws Exception {
+        EndpointDTO dto = registerEchoEndpoint(bundleContext, UUID.randomUUID().toString(), "/echocached");
+        URL wsdl = new URL(dto.address + "?wsdl");
+        HttpURLConnection connection = (HttpURLConnection) wsdl.openConnection();
+        assertThat(connection.getResponseCode()).isEqualTo(HttpURLConnection.HTTP_OK);
+        String etag = connection.getHeaderField("ETag");
+        assertThat(etag).startsWith("\"").endsWith("\"");
+        try (InputStream stream = connection.getInputStream()) {
+            assertThat(new String(stream.readAllBytes(), StandardCharsets.UTF_8)).contains("definitions");
+        }
+        HttpURLConnection revalidate = (HttpURLConnection) wsdl.openConnection();
+        revalidate.setRequestProperty("If-None-Match", etag);
+        assertThat(revalidate.getResponseCode()).isEqualTo(HttpURLConnection.HTTP_NOT_MODIFIED);
+        assertThat(revalidate.getHeaderField("ETag")).isEqualTo(etag);
+        assertEndpointEcho(dto);
+    }
+
     @Override
     protected WebserviceServiceRuntime getRuntime() {
         return runtime;
@@ -16,6 +16,8 @@ import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
+import java.io.IOException;
+import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.Hashtable;
@@ -25,6 +27,7 @@ import java.util.function.Function;
 import org.assertj.core.api.Assertions;
 import org.eclipse.osgi.technology.webservices.integration.tests.binding.WSEchoService;
 import org.eclipse.osgi.technology.webservices.integration.tests.implementor.WSEcho;
+import org.eclipse.osgi.technology.webservices.runtime.RuntimeChangeFeed;
 import org.osgi.framework.BundleContext;
 import org.osgi.service.webservice.runtime.WebserviceServiceRuntime;
 import org.osgi.service.webservice.runtime.dto.EndpointDTO;
@@ -48,9 +51,18 @@ public abstract class TestBase {
     }
 
     protected EndpointDTO registerEchoEndpoint(BundleContext bundleContext, String id, String publishAddress) {
-        Hashtable<String, Object> properties = getImplementorProperties(publishAddress);
+        return registerEchoEndpoint(bundleContext, id, getImplementorProperties(publishAddress));
+    }
+
+    protected EndpointDTO registerEchoEndpoint(BundleContext bundleContext, String id,
+            Hashtable<String, Object> properties) {
+        return registerEchoEndpoint(bundleContext, id, new WSEcho(), properties);
+    }
+
+    protected EndpointDTO registerEchoEndpoint(BundleContext bundleContext, String id, WSEcho implementor,
+            Hashtable<String, Object> properties) {
         properties.put(KEY_UUUID, id);
-        bundleContext.registerService(WSEcho.class, new WSEcho(), properties);
+        bundleContext.registerService(WSEcho.class, implementor, properties);
         EndpointDTO endpoint = waitForDTO(10, SECONDS, dto -> {
             assertThat(dto.endpoints).as("Endpoints DTO").isNotNull();
             for (EndpointDTO ep : dto.endpoints) {
@@ -77,13 +89,24 @@ public abstract class TestBase {
         WebserviceServiceRuntime runtime = getRuntime();
         assertNotNull(runtime, "WebserviceServiceRuntime can't be null");
         while (System.currentTimeMillis() < deadline) {
+            long changeCount = runtime instanceof RuntimeChangeFeed feed ? feed.getChangeCount() : -1;
             RuntimeDTO runtimeDTO = runtime.getRuntimeDTO();
             assertThat(runtimeDTO).as("RuntimeDTO").isNotNull();
             T result = tester.apply(runtimeDTO);
             if (result != null) {
                 return result;
             }
-            Thread.yield();
+            if (runtime instanceof RuntimeChangeFeed feed) {
+                try {
+                    feed.awaitChange(changeCount, Math.max(1, deadline - System.currentTimeMillis()),
+                            TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            } else {
+                Thread.yield();
+            }
         }
         Assertions.fail(msg + " // current DTO: " + getRuntime().getRuntimeDTO());
         return null;
@@ -96,5 +119,28 @@ public abstract class TestBase {
         assertThat(echo).as("Returned Text").isEqualTo(textIn);
     }
 
+    /**
+     * @param text the text to echo
+     * @return a SOAP request for the echo operation
+     */
+    protected static String echoRequest(String text) {
+        return "<S:Envelope xmlns:S=\"http://schemas.xmlsoap.org/soap/envelope/\"><S:Body><ns:echo xmlns:ns=\""
+                + WSEchoService.NS + "\"><textIn>" + text + "</textIn></ns:echo></S:Body></S:Envelope>";
+    }
+
+    /**
+     * @param endpoint the endpoint to call
+     * @return a connection to post a raw {@link #echoRequest(String)} to the
+     *         endpoint
+     */
+    protected static HttpURLConnection openEchoConnection(EndpointDTO endpoint) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(endpoint.address).openConnection();
+        connection.setDoOutput(true);
+        connection.setRequestMethod("POST");
+        connection.setRequestProperty("Content-Type", "text/xml; charset=utf-8");
+        connection.setRequestProperty("SOAPAction", "\"echo\"");
+        return connection;
+    }
+
     protected abstract WebserviceServiceRuntime getRuntime();
 }
@@ -26,7 +26,10 @@ import jakarta.xml.ws.WebServiceClient;
 @WebServiceClient(name = "WSEchoService", targetNamespace = WSEchoService.NS)
 public class WSEchoService extends Service {
 
-    static final String NS = "http://implementor.tests.integration.webservices.technology.osgi.eclipse.org/";
+    /**
+     * The namespace of the echo service
+     */
+    public static final String NS = "http://implementor.tests.integration.webservices.technology.osgi.eclipse.org/";
     private final static QName WSECHOSERVICE_QNAME = new QName(NS, "WSEchoService");
 
     /**
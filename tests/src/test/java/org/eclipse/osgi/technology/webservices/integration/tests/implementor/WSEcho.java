@@ -25,6 +25,9 @@ import jakarta.jws.soap.SOAPBinding.Style;
 @SOAPBinding(style = Style.RPC)
 public class WSEcho {
 
+    private volatile Thread lastCaller;
+    private volatile long delay;
+
     /**
      * THe constructor
      */
@@ -41,7 +44,33 @@ public class WSEcho {
     @WebMethod(operationName = "echo", action = "echo")
     public String echo(@WebParam(name = "textIn") String text) {
         System.out.println("Echo '" + text + "' to caller!");
+        lastCaller = Thread.currentThread();
+        long millis = delay;
+        if (millis > 0) {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
         return text;
     }
 
+    /**
+     * @return the thread that handled the last echo request or <code>null</code>
+     *         if there was none
+     */
+    @WebMethod(exclude = true)
+    public Thread getLastCaller() {
+        return lastCaller;
+    }
+
+    /**
+     * @param delay the time in milliseconds each echo request takes
+     */
+    @WebMethod(exclude = true)
+    public void setDelay(long delay) {
+        this.delay = delay;
+    }
+
 }